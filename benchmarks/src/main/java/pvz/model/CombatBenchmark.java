@@ -0,0 +1,117 @@
+package pvz.model;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-tick cost of the combat queries on a headless world (no sprites, no FX toolkit).
+ *
+ * The lawn is full of peashooters (45, one per cell; the grid can't hold more) and
+ * {@code entities} zombies and peas are spread over the five lanes between the house and the
+ * spawn area. Each benchmark runs the query once for every entity that would run it in a tick.
+ * Nothing moves or takes damage, so every invocation sees the same world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatBenchmark {
+    @Param({"10", "100", "1000"})
+    public int entities;
+
+    private World world;
+    private final ArrayList<Zombie> zombies = new ArrayList<>();
+    private final ArrayList<Peashooter> shooters = new ArrayList<>();
+    private final ArrayList<Pea> peas = new ArrayList<>();
+    private final ArrayList<Zombie> blast = new ArrayList<>();
+    private Cherry cherry;
+
+    @Setup
+    public void setUp() {
+        world = new World(true); // no sprites, no sounds
+        Random random = new Random(42);
+
+        for (int row = 0; row < Yard.ROWS; row++) {
+            for (int col = 0; col < Yard.COLUMNS; col++) {
+                Peashooter shooter = new Peashooter(world, HeadlessSimulation.cellCenterX(col), HeadlessSimulation.cellCenterY(row));
+                world.addPlant(shooter, row, col);
+                shooter.setAlive(true);
+                shooters.add(shooter);
+            }
+        }
+
+        for (int i = 0; i < entities; i++) {
+            int lane = i % Yard.ROWS;
+            int x = (int) Yard.HOUSE_BOUNDARY_X + random.nextInt(LevelRules.SPAWN_MAX_X - (int) Yard.HOUSE_BOUNDARY_X);
+            int y = Yard.ZOMBIE_LANE_Y[lane];
+            Zombie zombie = new DefaultZombie(world, x, y);
+            zombie.setLane(lane);
+            zombie.appear(null, x, y);
+            world.addZombie(zombie, lane);
+            zombies.add(zombie);
+        }
+        world.getZombieLanes().refresh();
+
+        for (int i = 0; i < entities; i++) {
+            Peashooter shooter = shooters.get(i % shooters.size());
+            Pea pea = new Pea(world, 15, shooter);
+            pea.launch(15, shooter, shooter.getPosX() + 65 + random.nextInt(Yard.WIDTH / 2), shooter.getPosY() + 31);
+            pea.setAlive(true);
+            peas.add(pea);
+        }
+
+        // Middle of the lawn, so the blast reaches the most lanes; kept out of the grid (it's full)
+        cherry = new Cherry(world, HeadlessSimulation.cellCenterX(4), HeadlessSimulation.cellCenterY(2));
+        cherry.setX(2);
+        cherry.setY(4);
+        cherry.setAlive(true);
+    }
+
+    /** Every zombie looks for a plant to bite (Zombie.checkForPlantCollision). */
+    @Benchmark
+    public void zombieVsPlant(Blackhole bh) {
+        for (int i = 0; i < zombies.size(); i++) {
+            bh.consume(zombies.get(i).checkForPlantCollision());
+        }
+    }
+
+    /** Every pea looks for a zombie to hit (Pea.checkForZombieCollision). */
+    @Benchmark
+    public void peaVsZombie(Blackhole bh) {
+        for (int i = 0; i < peas.size(); i++) {
+            bh.consume(peas.get(i).checkForZombieCollision());
+        }
+    }
+
+    /** Every shooter checks its lane before firing (Peashooter.hasZombieInLane). */
+    @Benchmark
+    public void laneDetection(Blackhole bh) {
+        for (int i = 0; i < shooters.size(); i++) {
+            bh.consume(shooters.get(i).hasZombieInLane());
+        }
+    }
+
+    /** Zombie lookup of Cherry.damageNearbyZombies, without applying the damage. */
+    @Benchmark
+    public int cherryBlast() {
+        blast.clear();
+        cherry.collectZombiesInBlast(170, blast);
+        return blast.size();
+    }
+}
@@ -85,5 +85,12 @@ if (Test-Path 'src\pvz\music') {
     Copy-Item -Path 'src\pvz\music\*' -Destination $dest -Recurse -Force
 }
 
+# Ensure the level wave files are on the runtime classpath (copy resources)
+if (Test-Path 'src\pvz\waves') {
+    $dest = 'bin\pvz\waves'
+    if (-not (Test-Path $dest)) { New-Item -ItemType Directory -Path $dest | Out-Null }
+    Copy-Item -Path 'src\pvz\waves\*' -Destination $dest -Recurse -Force
+}
+
 # Run
 & java --module-path $fx --add-modules javafx.controls,javafx.graphics,javafx.media --enable-native-access=javafx.graphics,javafx.media -cp bin pvz.Main
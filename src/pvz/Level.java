@@ -3,10 +3,16 @@ package pvz;
 import java.io.Serializable;
 
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.input.KeyCode;
 import javafx.stage.Stage;
+import pvz.model.LevelAssets;
+import pvz.model.LevelRules;
 import pvz.model.LoadingScreen;
 import pvz.model.SoundtrackPlayer;
 import pvz.model.Yard;
+import pvz.model.YardSnapshot;
 
 /**
  * Represents a single level selection within the game menu. In addition to the
@@ -30,32 +36,51 @@ public class Level implements Serializable {
         this.durationInSeconds = durationInSeconds;
     }
 
+    // Set by the level's wave file
     private static int defaultDurationFor(int levelNumber) {
-        return switch (levelNumber) {
-            case 2 -> 150;
-            case 3 -> 160; 
-            case 5 -> 150; 
-            default -> 130; 
-        };
+        return LevelRules.forLevel(levelNumber).getDurationSeconds();
     }
 
     /**
-     * Creates and displays the {@link Yard} associated with this level on the
-     * provided JavaFX {@link Stage}. The yard thread is started automatically.
+     * Preloads this level's assets behind the loading screen, then creates and
+     * displays the {@link Yard} on the provided JavaFX {@link Stage} and starts
+     * its simulation. If the player saved a game of this level,
+     * they are asked whether to continue it first.
      */
-    public Yard startLevel(Stage stage) {
+    public void startLevel(Stage stage) {
+        YardSnapshot savedGame = savedGameToResume();
         playLevelSoundtrack();
 
-        currentYard = new Yard(this, stage);
-
-        LoadingScreen.show(stage, () -> {
-            Scene yardScene = new Scene(currentYard.root, Yard.WIDTH, Yard.HEIGHT);
+        LoadingScreen.show(stage, LevelAssets.forLevel(levelNumber), () -> {
+            currentYard = new Yard(this, stage, savedGame);
+            Scene yardScene = new Scene(currentYard.getRoot(), Yard.WIDTH, Yard.HEIGHT);
+            yardScene.setOnKeyPressed(event -> {
+                if (event.getCode() == KeyCode.ESCAPE) {
+                    currentYard.togglePause();
+                }
+            });
+            currentYard.getMetricsOverlay().installKeys(yardScene);
             stage.setScene(yardScene);
             stage.setTitle("PvZ - Level " + levelNumber);
             stage.setResizable(false);
-            currentYard.start();
+            currentYard.startSimulation();
         });
-        return currentYard;
+    }
+
+    // A save can be resumed once: it is deleted whether the player continues it or starts over
+    private YardSnapshot savedGameToResume() {
+        String username = Yard.getActivePlayerUsername();
+        YardSnapshot saved = YardSnapshot.load(username, levelNumber);
+        if (saved == null) {
+            return null;
+        }
+        Alert ask = new Alert(Alert.AlertType.CONFIRMATION,
+                "Continue your saved game of level " + levelNumber + "? Choose No to start over.",
+                ButtonType.YES, ButtonType.NO);
+        ask.setHeaderText("Saved game");
+        boolean resume = ask.showAndWait().orElse(ButtonType.NO) == ButtonType.YES;
+        YardSnapshot.delete(username, levelNumber);
+        return resume ? saved : null;
     }
 
     private void playLevelSoundtrack() {
@@ -12,8 +12,10 @@ import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
+import pvz.model.LevelAssets;
 import pvz.model.LoadingScreen;
 import pvz.model.AudioSettings;
+import pvz.model.PlayerStats;
 import pvz.model.PlayerStore;
 import pvz.model.Yard;
 import pvz.ui.AuthFormPane;
@@ -28,6 +30,11 @@ import pvz.ui.WallNutBowlingPane;
  * Keys:
  * - F2 toggles a visual overlay (drawn by ImageMenuPane) so you can see/adjust
  *   hotspot bounds while tuning.
+ * - In a level or the Wall-nut Bowling minigame, F3 toggles the performance
+ *   overlay and F4 exports its samples as CSV (see MetricsOverlay).
+ *
+ * Run with -Dpvz.renderer=canvas to draw the levels' playfield on canvases
+ * instead of one node per sprite (see CanvasRenderer).
  */
 public class Main extends Application {
     private MediaPlayer menuMusicPlayer;
@@ -67,6 +74,13 @@ public class Main extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        // Account, session and stats writes are queued; get them on disk before the JVM goes away
+        store.save();
+        PlayerStats.save();
+    }
+
     /** Convenience to show an information/error popup. */
     private void show(Alert.AlertType t, String msg) {
         Alert a = new Alert(t, msg); a.setHeaderText(null); a.showAndWait();
@@ -162,6 +176,7 @@ public class Main extends Application {
                 if (confirm.showAndWait().isPresent() && 
                     confirm.getResult() == javafx.scene.control.ButtonType.OK) {
                     if (store.deleteAccount(username, "")) {
+                        PlayerStats.get().removePlayer(username);
                         show(Alert.AlertType.INFORMATION, "Account deleted successfully.");
                         store.signOut();
                         root.getChildren().clear();
@@ -199,7 +214,7 @@ public class Main extends Application {
 
     private void showWalnutMiniGame(StackPane root, Stage stage, String username) {
         stopMenuMusic();
-        LoadingScreen.show(stage, () -> Platform.runLater(() -> showWalnutScene(stage, username)));
+        LoadingScreen.show(stage, LevelAssets.forWalnutBowling(), () -> Platform.runLater(() -> showWalnutScene(stage, username)));
     }
 
     private void showWalnutScene(Stage stage, String username) {
@@ -208,6 +223,7 @@ public class Main extends Application {
             playMenuMusic();
         });
         Scene minigameScene = new Scene(pane, WallNutBowlingPane.WIDTH, WallNutBowlingPane.HEIGHT);
+        pane.getMetricsOverlay().installKeys(minigameScene);
         stage.setScene(minigameScene);
         stage.setTitle("PvZ - Wall-nut Bowling");
         stage.setResizable(false);
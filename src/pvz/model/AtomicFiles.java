@@ -0,0 +1,47 @@
+package pvz.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Whole-file replacement that survives a crash: the new contents go to a temp file next to the
+ * target, are fsynced, and then renamed over it, so readers see the old file or the new one and
+ * never half of one.
+ */
+final class AtomicFiles {
+    private AtomicFiles() { }
+
+    /** Replace {@code target} with {@code bytes}. */
+    static void write(Path target, byte[] bytes) throws IOException {
+        Path temp = tempFor(target);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        moveIntoPlace(temp, target);
+    }
+
+    /** Sibling of {@code target} to write its next version to. */
+    static Path tempFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    /** Rename an already fsynced {@code temp} over {@code target}, atomically where the file system can. */
+    static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
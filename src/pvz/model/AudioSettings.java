@@ -7,11 +7,14 @@ import java.util.Set;
 import javafx.scene.media.MediaPlayer;
 
 /**
- * Central audio preferences for menu and in-game music.
+ * Central audio preferences for menu and in-game music, plus the sound-effect level used by
+ * {@link SoundEffects}.
  */
 public final class AudioSettings {
     private static boolean musicEnabled = true;
     private static double musicVolume = 0.2;
+    private static boolean effectsEnabled = true;
+    private static double effectsVolume = 1.0;
     private static final Set<MediaPlayer> trackedPlayers = new HashSet<>();
 
     private AudioSettings() { }
@@ -34,6 +37,28 @@ public final class AudioSettings {
         applyToTrackedPlayers();
     }
 
+    public static synchronized boolean isEffectsEnabled() {
+        return effectsEnabled;
+    }
+
+    /** Master level for sound effects; each effect's own volume is scaled by this. */
+    public static synchronized double getEffectsVolume() {
+        return effectsVolume;
+    }
+
+    public static void setEffectsEnabled(boolean enabled) {
+        synchronized (AudioSettings.class) {
+            effectsEnabled = enabled;
+        }
+        if (!enabled) {
+            SoundEffects.stopAll();
+        }
+    }
+
+    public static synchronized void setEffectsVolume(double volume) {
+        effectsVolume = clamp(volume, 0.0, 1.0);
+    }
+
     public static synchronized void register(MediaPlayer player) {
         if (player == null) return;
         trackedPlayers.add(player);
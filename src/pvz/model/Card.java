@@ -10,8 +10,6 @@ import javafx.scene.control.Button;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.GridPane;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
@@ -29,6 +27,7 @@ public class Card
 	private boolean onCooldown = false;
 	private final int cooldownTime = 10 * 1000; // Cooldown duration in milliseconds
 	private Rectangle cooldownOverlay; // Mask for the visual effect
+	private AnchorPane yardRoot; // Root pane of the yard this card was added to
 
 	private ImageView cardImageView;    // Card ImageView for dragging
 	private ImageView draggingImageView; // Temporary image for dragging
@@ -91,14 +90,16 @@ public class Card
 	public void addToYard(AnchorPane root, GridPane yardGrid, Yard yard)
 	{
 		// Add card to the root pane
+		yardRoot = root;
 		root.getChildren().add(cardImageView);
+		World world = yard.getWorld();
 
 		cardImageView.setOnMousePressed(event ->
 		{
 			if (onCooldown) {
 				return;
 			}
-			if (yard.sunCounter < cost)
+			if (world.getSunCounter() < cost)
 			{
 				cardUnavailableAudio();
 				System.out.println("Not enough sun to select this card.");
@@ -136,7 +137,7 @@ public class Card
 		// Update dragging and hover behavior
 		cardImageView.setOnMouseDragged(event ->
 		{
-			if (yard.sunCounter < cost)
+			if (world.getSunCounter() < cost)
 			{
 				// If the sun counter is not sufficient, prevent dragging
 				return;
@@ -211,7 +212,7 @@ public class Card
 		// Drop the plant when the mouse is released
 		cardImageView.setOnMouseReleased(event ->
 		{
-			if (yard.sunCounter < cost)
+			if (world.getSunCounter() < cost)
 			{
 				return;
 			}
@@ -247,15 +248,14 @@ public class Card
 										}
 									} else {
 										try {
-											if (!yard.isValidPosition(row, col) || yard.grid[row][col] != null) {
+											if (!yard.isValidPosition(row, col) || world.getGrid()[row][col] != null) {
 												System.out.println("Tile occupied or invalid at (" + row + ", " + col + ")");
 												break;
 											}
 
-											Plant plant = plantType.getDeclaredConstructor(int.class, int.class).newInstance((int) centerX, (int) centerY);
+											Plant plant = plantType.getDeclaredConstructor(World.class, int.class, int.class).newInstance(world, (int) centerX, (int) centerY);
 											yard.placePlant(plant, root, row, col);
-											yard.sunCounter -= plant.getCost();
-											yard.label.setText(String.valueOf(yard.sunCounter));
+											world.addSun(-plant.getCost());
 											startCooldown();
 										} catch (Exception e) {
 											System.out.println("An exception occurred: " + e);
@@ -314,9 +314,9 @@ public class Card
 			cooldownOverlay.setLayoutY(cardImageView.getLayoutY());
 
 			// Add the overlay to the parent if not already added
-			if (!Yard.root.getChildren().contains(cooldownOverlay))
+			if (!yardRoot.getChildren().contains(cooldownOverlay))
 			{
-				Yard.root.getChildren().add(cooldownOverlay);
+				yardRoot.getChildren().add(cooldownOverlay);
 			}
 		}
 
@@ -344,30 +344,11 @@ public class Card
 
 
 	public void cardSelectedAudio() {
-		try {
-			String path = getClass().getResource("/pvz/music/card selected.mp3").toExternalForm();
-			System.out.println("Path: " + path);
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.02);
-
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing card sound: " + e.getMessage());
-		}
+		SoundEffects.play("/pvz/music/card selected.mp3", 0.02);
 	}
 
 	public void cardUnavailableAudio() {
-		try {
-			String path = getClass().getResource("/pvz/music/card unavailable.mp3").toExternalForm();
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.3);
-
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing unavailable card sound: " + e.getMessage());
-		}
+		SoundEffects.play("/pvz/music/card unavailable.mp3", 0.3);
 	}
 
 	private int resolveRowIndex(Node node) {
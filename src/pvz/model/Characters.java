@@ -2,17 +2,42 @@ package pvz.model;
 
 import java.io.Serializable;
 
-import javafx.application.Platform;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 
+import pvz.util.AssetLoader;
+import pvz.util.SpriteAnimation;
+import pvz.util.SpriteAtlas;
+
 /**
  * Base class for any entity that can appear on the yard grid (plants, zombies, projectiles, etc.).
+ *
+ * Game logic works on the model position and hitbox ({@link #getPosX()}, {@link #getWidth()}, ...);
+ * the sprite only mirrors them through {@link #syncView()}, once per frame for moving entities
+ * (see {@link World#syncScene()}). With sprites disabled (headless
+ * simulations) entities have no ImageView at all and never touch the JavaFX toolkit.
+ *
+ * Sprites show a {@link SpriteAtlas} through a {@link SpriteAnimation}, so animated ones advance
+ * with the world's clock rather than each GIF animating on its own.
  */
 public abstract class Characters extends MainElements implements Serializable, Runnable {
     protected int health;
     protected double waitingTime;
     private volatile boolean alive;
 
+    // Top-left corner and size of the hitbox, in yard pixels
+    protected double posX;
+    protected double posY;
+    protected double width;
+    protected double height;
+
+    // Plays the sprite's frames; null without a sprite
+    private transient SpriteAnimation animation;
+
+    // Id and slot in the world's EntityRegistry; 0 and -1 while not registered
+    private transient long entityId;
+    private transient int registrySlot = -1;
+
     public Characters() {
     }
 
@@ -50,13 +75,138 @@ public abstract class Characters extends MainElements implements Serializable, R
         this.alive = alive;
     }
 
+    /** Generational id in the world's registry (see {@link EntityRegistry#get}), or 0 if not registered. */
+    public long getEntityId() {
+        return entityId;
+    }
+
+    int getRegistrySlot() {
+        return registrySlot;
+    }
+
+    void register(long id, int slot) {
+        entityId = id;
+        registrySlot = slot;
+    }
+
+    public double getPosX() {
+        return posX;
+    }
+
+    public double getPosY() {
+        return posY;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public void setPosition(double x, double y) {
+        posX = x;
+        posY = y;
+        syncView();
+    }
+
+    /** Move along the lane; the sprite catches up at the next {@link World#syncScene()}. */
+    public void moveBy(double dx) {
+        posX += dx;
+    }
+
+    public boolean overlaps(Characters other) {
+        return overlaps(other, 0);
+    }
+
+    /** Hitbox overlap test, with this entity's box shrunk by {@code inset} on every side. */
+    public boolean overlaps(Characters other, double inset) {
+        // Through the getters, since a zombie's hitbox lives in its world's ZombieStore
+        double x = getPosX();
+        double y = getPosY();
+        double left = x + inset;
+        double top = y + inset;
+        double right = x + getWidth() - inset;
+        double bottom = y + getHeight() - inset;
+        double otherX = other.getPosX();
+        double otherY = other.getPosY();
+        return right > left && bottom > top
+                && left < otherX + other.getWidth() && right > otherX
+                && top < otherY + other.getHeight() && bottom > otherY;
+    }
+
+    /** Copy the model position onto the sprite, if there is one. */
+    public void syncView() {
+        if (elementImage != null) {
+            elementImage.setLayoutX(posX);
+            elementImage.setLayoutY(posY);
+        }
+    }
+
+    /**
+     * Build a ratio-preserving sprite fitted into fitWidth x fitHeight and size the hitbox to match.
+     * Returns null when the entity's world has no sprites; the hitbox is then sized from the image
+     * file header. Constructors call this after {@link #setWorld}.
+     */
+    protected ImageView loadSprite(String path, double fitWidth, double fitHeight) {
+        ImageView view = null;
+        if (world.isSpritesEnabled()) {
+            view = new ImageView();
+            animation = new SpriteAnimation(view);
+            animation.play(SpriteAtlas.load(path));
+            view.setFitWidth(fitWidth);
+            view.setFitHeight(fitHeight);
+            view.setPreserveRatio(true);
+        }
+        fitHitbox(path, fitWidth, fitHeight);
+        return view;
+    }
+
+    /** Swap the sprite image (e.g. to an attack animation) and resize the hitbox with it. */
+    protected void changeSprite(String path, double fitWidth, double fitHeight) {
+        if (elementImage != null) {
+            elementImage.setFitWidth(fitWidth);
+            elementImage.setFitHeight(fitHeight);
+            elementImage.setPreserveRatio(true);
+            showSprite(path);
+        }
+        fitHitbox(path, fitWidth, fitHeight);
+    }
+
+    /** Swap the sprite image only, keeping its size and the hitbox (e.g. a cracked Wall-nut). */
+    protected void showSprite(String path) {
+        if (animation != null && animation.getView() == elementImage) {
+            animation.play(SpriteAtlas.load(path));
+        } else if (elementImage != null) {
+            elementImage.setImage(AssetLoader.loadImage(path));
+        }
+    }
+
+    // Same fitting rule as ImageView with preserveRatio: scale the image to fit inside the box.
+    private void fitHitbox(String path, double fitWidth, double fitHeight) {
+        try {
+            double[] size = AssetLoader.imageSize(path);
+            double scale = Math.min(fitWidth / size[0], fitHeight / size[1]);
+            setSize(size[0] * scale, size[1] * scale);
+        } catch (IllegalArgumentException ex) {
+            setSize(fitWidth, fitHeight);
+        }
+    }
+
+    /** Resize the hitbox, keeping its top-left corner. */
+    protected void setSize(double width, double height) {
+        this.width = width;
+        this.height = height;
+    }
+
     /** Apply damage and clamp health without forcing subclasses to duplicate the logic. */
     public void takeDamage(int damage) {
         health -= damage;
         if (health <= 0) {
             health = 0;
             setAlive(false);
-            Platform.runLater(() -> disappear(Yard.root));
+            world.post(() -> disappear(world.getRoot()));
         }
     }
 
@@ -1,83 +1,100 @@
 package pvz.model;
 
 import javafx.animation.ScaleTransition;
-import javafx.application.Platform;
 import javafx.scene.image.ImageView;
 import javafx.util.Duration;
 
 import java.util.ArrayList;
 
-import pvz.util.AssetLoader;
-
 public class Cherry extends Plant {
+    private static final double LANE_HEIGHT = 82; // Approximate pixel height of one yard row
+    private static final long FUSE_MILLIS = 1000;
+
     public Cherry() {
         super(150, 7, 150);
     }
 
-    public Cherry(int x, int y) {
+    public Cherry(World world, int x, int y) {
         this();
+        setWorld(world);
         this.x = x;
         this.y = y;
-        String spritePath = Yard.isPixelArtMode()
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartplants/pixelCherry.png"
             : "images/plants/cherry.png";
-        ImageView sprite = new ImageView(AssetLoader.loadImage(spritePath));
-        sprite.setFitWidth(90);
-        sprite.setFitHeight(90);
-        sprite.setPreserveRatio(true);
-        sprite.setLayoutX(x - sprite.getFitWidth() / 2.0);
-        sprite.setLayoutY(y - sprite.getFitHeight() / 2.0);
+        ImageView sprite = loadSprite(spritePath, 90, 90);
+        setPosition(x - 90 / 2.0, y - 90 / 2.0);
         setSprite(sprite);
     }
 
+    // Small fuse before exploding, once
+    @Override
+    protected long getActionIntervalMillis() {
+        return FUSE_MILLIS;
+    }
+
+    @Override
+    protected boolean repeatsAction() {
+        return false;
+    }
+
     @Override
     public void run() {
-        try {
-            // Small fuse before exploding
-            Thread.sleep(1000);
+        if (isAlive()) {
             triggerExplosion();
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
         }
     }
 
     private void triggerExplosion() {
+        // The blast lands on this tick; the swelling sprite afterwards is only for show
+        damageNearbyZombies(170, 500);
+        setAlive(false);
+        stopBehaviour();
         ImageView node = getSprite();
         if (node != null) {
             ScaleTransition grow = new ScaleTransition(Duration.millis(250), node);
             grow.setToX(1.6);
             grow.setToY(1.6);
-            grow.setOnFinished(evt -> {
-                damageNearbyZombies(170, 500);
-                disappear(Yard.root);
-            });
-            Platform.runLater(grow::play);
+            grow.setOnFinished(evt -> disappear(world.getRoot()));
+            world.post(grow::play);
         } else {
-            damageNearbyZombies(170, 500);
-            Platform.runLater(() -> disappear(Yard.root));
+            disappear(world.getRoot());
         }
     }
 
     private void damageNearbyZombies(double radius, int damage) {
-        ArrayList<Zombie> snapshot;
-        synchronized (Yard.zombies) {
-            snapshot = new ArrayList<>(Yard.zombies);
+        ArrayList<Zombie> inBlast = new ArrayList<>();
+        collectZombiesInBlast(radius, inBlast);
+        for (Zombie zombie : inBlast) {
+            zombie.takeDamage(damage);
         }
+    }
 
-        ImageView node = getSprite();
-        double centerX = node != null ? node.getLayoutX() + node.getFitWidth() / 2.0 : x;
-        double centerY = node != null ? node.getLayoutY() + node.getFitHeight() / 2.0 : y;
+    /** Add every live zombie whose centre is within {@code radius} of this cherry's centre to {@code out}. */
+    void collectZombiesInBlast(double radius, ArrayList<Zombie> out) {
+        double centerX = posX + width / 2.0;
+        double centerY = posY + height / 2.0;
+
+        // Only rows within the blast radius can be hit; getX() holds the grid row once placed
+        int reachRows = (int) Math.ceil(radius / LANE_HEIGHT);
+        int start = out.size();
+        for (int lane = Math.max(0, getX() - reachRows); lane <= Math.min(Yard.ROWS - 1, getX() + reachRows); lane++) {
+            world.getZombieLanes().collect(lane, centerX - radius - Yard.MAX_ZOMBIE_WIDTH, centerX + radius, out);
+        }
 
-        for (Zombie zombie : snapshot) {
-            if (zombie == null || !zombie.isAlive() || zombie.getElementImage() == null) {
+        // Compact the candidates in place down to the zombies actually inside the circle
+        int kept = start;
+        for (int i = start; i < out.size(); i++) {
+            Zombie zombie = out.get(i);
+            if (!zombie.isAlive()) {
                 continue;
             }
-            ImageView zombieView = zombie.getElementImage();
-            double dx = (zombieView.getLayoutX() + zombieView.getFitWidth() / 2.0) - centerX;
-            double dy = (zombieView.getLayoutY() + zombieView.getFitHeight() / 2.0) - centerY;
+            double dx = (zombie.getPosX() + zombie.getWidth() / 2.0) - centerX;
+            double dy = (zombie.getPosY() + zombie.getHeight() / 2.0) - centerY;
             if (Math.hypot(dx, dy) <= radius) {
-                zombie.takeDamage(damage);
+                out.set(kept++, zombie);
             }
         }
+        out.subList(kept, out.size()).clear();
     }
 }
@@ -1,25 +1,19 @@
 package pvz.model;
 
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 
-import pvz.util.AssetLoader;
-
 public class ConeZombie extends Zombie {
-    public ConeZombie() {
+    public ConeZombie(World world) {
         super(10, 0.45, 135);
-        String spritePath = Yard.isPixelArtMode()
+        setWorld(world);
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartzombies/PixelConeHeadZombie.gif"
             : "images/zombies/ConeZombie.gif";
-        ImageView view = new ImageView(AssetLoader.loadImage(spritePath));
-        view.setFitHeight(155);
-        view.setFitWidth(134);
-        view.setPreserveRatio(true);
-        this.elementImage = view;
+        this.elementImage = loadSprite(spritePath, 134, 155);
     }
 
-    public ConeZombie(int x, int y) {
-        this();
+    public ConeZombie(World world, int x, int y) {
+        this(world);
         this.x = x;
         this.y = y;
     }
@@ -1,24 +1,17 @@
 package pvz.model;
 
-import javafx.scene.image.ImageView;
-
-import pvz.util.AssetLoader;
-
 public class DefaultZombie extends Zombie {
-    public DefaultZombie() {
+    public DefaultZombie(World world) {
         super(10, 0.5, 90);
-        String spritePath = Yard.isPixelArtMode()
+        setWorld(world);
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartzombies/PixelDefaultZombie.gif"
             : "images/zombies/Zombie.gif";
-        ImageView view = new ImageView(AssetLoader.loadImage(spritePath));
-        view.setFitWidth(134);
-        view.setFitHeight(155);
-        view.setPreserveRatio(true);
-        this.elementImage = view;
+        this.elementImage = loadSprite(spritePath, 134, 155);
     }
 
-    public DefaultZombie(int x, int y) {
-        this();
+    public DefaultZombie(World world, int x, int y) {
+        this(world);
         this.x = x;
         this.y = y;
     }
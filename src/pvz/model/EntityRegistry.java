@@ -0,0 +1,191 @@
+package pvz.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * The live entities of one kind in a {@link World}, in the order they were added, each with a
+ * generational id: {@link #get(long)} returns null once the entity has been removed, even after its
+ * handle has gone to a newer entity, so an id can be kept where a reference would keep a dead
+ * zombie or a dug-up plant around.
+ *
+ * Entities sit in a slot array; removing one just clears its slot, and the holes are squeezed out
+ * by {@link #compact()} once the world has finished a step. Iteration walks the slots in place,
+ * skipping holes, so nothing is copied per step: entities removed during a walk are not visited,
+ * and entities added during it are left for the next one.
+ *
+ * One thread changes the registry, the one running the tick, and needs no lock. Other threads may
+ * iterate it at any time without locking either: an added entity is published through the volatile
+ * slot count, and a compacted or grown array replaces the old one, which stays intact for readers
+ * still walking it. Such readers may miss an entity added or see one removed during their walk.
+ */
+public final class EntityRegistry<T extends Characters> implements Iterable<T> {
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int MIN_HOLES_TO_COMPACT = 16;
+
+    private volatile Characters[] slots = new Characters[INITIAL_CAPACITY];
+    private volatile int end;   // slots [0, end) have been used
+    private int live;
+
+    // Handle table: an id is (generation << 32 | handle), valid while the handle's generation matches
+    private Characters[] byHandle = new Characters[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int[] freeHandles = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int handleCount;
+
+    /** Register an entity that isn't registered yet; returns its id, also kept on the entity. */
+    public long add(T entity) {
+        if (entity.getEntityId() != 0) {
+            throw new IllegalStateException(entity + " is already registered");
+        }
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (handleCount == byHandle.length) {
+                int capacity = byHandle.length * 2;
+                byHandle = Arrays.copyOf(byHandle, capacity);
+                generations = Arrays.copyOf(generations, capacity);
+                freeHandles = Arrays.copyOf(freeHandles, capacity);
+            }
+            handle = handleCount++;
+        }
+        int generation = ++generations[handle]; // starts at 1, so id 0 means "none"
+        byHandle[handle] = entity;
+        long id = (long) generation << 32 | handle;
+
+        Characters[] current = slots;
+        int slot = end;
+        if (slot == current.length) {
+            // Grow into a new array; readers of the old one keep a consistent view
+            current = Arrays.copyOf(current, current.length * 2);
+            slots = current;
+        }
+        current[slot] = entity;
+        entity.register(id, slot);
+        end = slot + 1;
+        live++;
+        return id;
+    }
+
+    /** Unregister the entity; false if it wasn't in this registry. */
+    public boolean remove(T entity) {
+        long id = entity.getEntityId();
+        int handle = (int) id;
+        if (id == 0 || handle >= handleCount || byHandle[handle] != entity || generations[handle] != (int) (id >>> 32)) {
+            return false;
+        }
+        byHandle[handle] = null;
+        freeHandles[freeCount++] = handle;
+        slots[entity.getRegistrySlot()] = null;
+        entity.register(0, -1);
+        live--;
+        return true;
+    }
+
+    /** The entity with this id, or null if it has been removed. */
+    @SuppressWarnings("unchecked")
+    public T get(long id) {
+        int handle = (int) id;
+        if (id == 0 || handle < 0 || handle >= handleCount || generations[handle] != (int) (id >>> 32)) {
+            return null;
+        }
+        return (T) byHandle[handle];
+    }
+
+    public boolean contains(T entity) {
+        return entity != null && entity.getEntityId() != 0 && get(entity.getEntityId()) == entity;
+    }
+
+    /** Number of live entities. */
+    public int size() {
+        return live;
+    }
+
+    public boolean isEmpty() {
+        return live == 0;
+    }
+
+    /** Squeeze out the holes left by removals, keeping the order; writer only, and not mid-iteration. */
+    public void compact() {
+        int used = end;
+        int holes = used - live;
+        if (holes < MIN_HOLES_TO_COMPACT || holes * 2 < used) {
+            return;
+        }
+        Characters[] current = slots;
+        Characters[] packed = new Characters[Math.max(INITIAL_CAPACITY, current.length)];
+        int next = 0;
+        for (int i = 0; i < used; i++) {
+            Characters entity = current[i];
+            if (entity != null) {
+                entity.register(entity.getEntityId(), next);
+                packed[next++] = entity;
+            }
+        }
+        slots = packed;
+        end = next;
+    }
+
+    /** Forget every entity; their ids stop resolving. */
+    public void clear() {
+        Characters[] current = slots;
+        for (int i = 0; i < end; i++) {
+            if (current[i] != null) {
+                current[i].register(0, -1);
+            }
+        }
+        for (int handle = 0; handle < handleCount; handle++) {
+            if (byHandle[handle] != null) {
+                byHandle[handle] = null;
+                freeHandles[freeCount++] = handle;
+            }
+        }
+        slots = new Characters[INITIAL_CAPACITY];
+        end = 0;
+        live = 0;
+    }
+
+    /** Visit every live entity in order, without allocating. */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Characters[] current = slots;
+        int limit = Math.min(end, current.length);
+        for (int i = 0; i < limit; i++) {
+            Characters entity = current[i];
+            if (entity != null) {
+                action.accept((T) entity);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        Characters[] current = slots;
+        int limit = Math.min(end, current.length);
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                while (next < limit && current[next] == null) {
+                    next++;
+                }
+                return next < limit;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (T) current[next++];
+            }
+        };
+    }
+}
@@ -1,25 +1,19 @@
 package pvz.model;
 
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 
-import pvz.util.AssetLoader;
-
 public class FootballZombie extends Zombie {
-    public FootballZombie() {
+    public FootballZombie(World world) {
         super(20, 0.8, 225);
-        String spritePath = Yard.isPixelArtMode()
+        setWorld(world);
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartzombies/PixelFootballZombie.gif"
             : "images/zombies/FootballZombie.gif";
-        ImageView view = new ImageView(AssetLoader.loadImage(spritePath));
-        view.setFitWidth(120);
-        view.setFitHeight(125);
-        view.setPreserveRatio(true);
-        this.elementImage = view;
+        this.elementImage = loadSprite(spritePath, 120, 125);
     }
 
-    public FootballZombie(int x, int y) {
-        this();
+    public FootballZombie(World world, int x, int y) {
+        this(world);
         this.x = x;
         this.y = y;
     }
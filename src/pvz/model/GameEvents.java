@@ -0,0 +1,156 @@
+package pvz.model;
+
+import java.util.Arrays;
+
+/**
+ * A world's gameplay events (zombie killed, pea hit, plant placed, sun collected, ...), for
+ * everything that reacts to the game without changing it: sounds, hit flashes, banners, counters.
+ *
+ * The simulation publishes into a fixed ring of reusable slots, so publishing is a few field
+ * writes with no allocation and no lock, and nothing a subscriber does runs inside the combat
+ * code. {@link #dispatch()} later hands each event to its type's subscribers, in order: on screen
+ * from {@link World#syncScene()} once per frame on the FX thread, and headless after each
+ * {@link World#step()}.
+ *
+ * There is one writer, the thread that runs the tick (on screen that is the FX thread, where
+ * clicks arrive too), and one reader, the thread that dispatches. The ring only hands slots
+ * across through the volatile {@code published} and {@code dispatched} counters. If the reader
+ * falls a whole ring behind, new events are dropped and counted rather than blocking the tick.
+ */
+public final class GameEvents {
+    public enum Type {
+        ZOMBIE_SPAWNED,
+        /** A zombie took damage from anything; {@code amount} is the damage. */
+        ZOMBIE_HIT,
+        ZOMBIE_KILLED,
+        /** A pea struck a zombie; {@code amount} is the damage. */
+        PEA_HIT,
+        PLANT_PLACED,
+        /** A plant was dug up with the shovel. */
+        PLANT_REMOVED,
+        /** A plant was eaten. */
+        PLANT_LOST,
+        /** The player picked up sun; {@code amount} is how much. */
+        SUN_COLLECTED,
+        HUGE_WAVE
+    }
+
+    /**
+     * One event. Slots are reused, so a subscriber must not keep the event past its call; copy
+     * out what it needs.
+     */
+    public static final class Event {
+        private Type type;
+        private long tick;
+        private Object subject;
+        private int row;
+        private int amount;
+
+        public Type type() {
+            return type;
+        }
+
+        /** World tick the event happened on. */
+        public long tick() {
+            return tick;
+        }
+
+        /** The zombie, plant or pea concerned, or null. */
+        public Object subject() {
+            return subject;
+        }
+
+        /** Lane or grid row, or -1. */
+        public int row() {
+            return row;
+        }
+
+        /** Damage, sun or count, depending on the type. */
+        public int amount() {
+            return amount;
+        }
+    }
+
+    public interface Listener {
+        void onEvent(Event event);
+    }
+
+    private static final int CAPACITY = 1024; // a power of two; several frames' worth even in a huge wave
+    private static final Listener[] NONE = new Listener[0];
+
+    private final World world;
+    private final Event[] ring = new Event[CAPACITY];
+    private volatile long published;
+    private volatile long dispatched;
+    private long dropped;
+
+    // Subscribers by type ordinal; copied on subscribe, so dispatch reads them without locking
+    private volatile Listener[][] byType = new Listener[Type.values().length][];
+
+    GameEvents(World world) {
+        this.world = world;
+        for (int i = 0; i < CAPACITY; i++) {
+            ring[i] = new Event();
+        }
+        Arrays.fill(byType, NONE);
+    }
+
+    /** Call {@code listener} for every event of {@code type}, on the dispatching thread. */
+    public synchronized void subscribe(Type type, Listener listener) {
+        Listener[][] table = byType.clone();
+        Listener[] current = table[type.ordinal()];
+        Listener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        table[type.ordinal()] = updated;
+        byType = table;
+    }
+
+    /** Record an event; simulation thread only. */
+    public void publish(Type type, Object subject, int row, int amount) {
+        long next = published;
+        if (next - dispatched == CAPACITY) {
+            dropped++;
+            return;
+        }
+        Event slot = ring[(int) (next & (CAPACITY - 1))];
+        slot.type = type;
+        slot.tick = world.getTickCount();
+        slot.subject = subject;
+        slot.row = row;
+        slot.amount = amount;
+        published = next + 1;
+    }
+
+    /** Hand every event published so far to its subscribers, oldest first. */
+    public void dispatch() {
+        long end = published;
+        long next = dispatched;
+        if (next == end) {
+            return;
+        }
+        Listener[][] table = byType;
+        for (; next < end; next++) {
+            Event event = ring[(int) (next & (CAPACITY - 1))];
+            for (Listener listener : table[event.type.ordinal()]) {
+                listener.onEvent(event);
+            }
+            event.subject = null; // don't keep dead entities reachable from the ring
+            dispatched = next + 1;
+        }
+    }
+
+    /** Events published but not yet dispatched. */
+    public int getPending() {
+        return (int) (published - dispatched);
+    }
+
+    /** Events lost because the ring was full; should stay 0. */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /** Forget undispatched events, e.g. when the world is cleared; dispatching thread only. */
+    void clear() {
+        dispatched = published;
+    }
+}
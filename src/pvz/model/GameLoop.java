@@ -0,0 +1,110 @@
+package pvz.model;
+
+import javafx.animation.AnimationTimer;
+import pvz.util.PerfMetrics;
+
+/**
+ * Fixed-timestep simulation clock for a running yard.
+ *
+ * A single {@link AnimationTimer} accumulates real pulse time and runs the supplied step exactly
+ * once per {@link #TICK_SECONDS}, so every zombie, pea, mower and plant advances in one pass on the
+ * JavaFX thread instead of each entity sleeping on its own thread. After the steps of a pulse the
+ * optional render callback runs once, so the scene is updated once per frame however many ticks ran.
+ * With {@link #setMetrics} set, each step, render and frame interval is timed into it.
+ */
+public class GameLoop {
+    public static final int TICKS_PER_SECOND = 60;
+    public static final double TICK_SECONDS = 1.0 / TICKS_PER_SECOND;
+    private static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+    // Upper bound on catch-up work after a stalled pulse, so a slow frame can't snowball.
+    private static final int MAX_TICKS_PER_PULSE = 5;
+
+    private final Runnable step;
+    private final Runnable render;
+    private final AnimationTimer timer;
+    private long lastPulse;
+    private long accumulated;
+    private long tickCount;
+    private boolean running;
+    private PerfMetrics metrics;
+
+    public GameLoop(Runnable step) {
+        this(step, () -> { });
+    }
+
+    public GameLoop(Runnable step, Runnable render) {
+        this.step = step;
+        this.render = render;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                pulse(now);
+            }
+        };
+    }
+
+    /** Start ticking; must be called on the JavaFX thread. */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        lastPulse = 0;
+        accumulated = 0;
+        timer.start();
+    }
+
+    public void stop() {
+        running = false;
+        timer.stop();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Time every step, render and frame into {@code metrics}; null stops timing. */
+    public void setMetrics(PerfMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** Number of simulation steps executed since this loop was created. */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    private void pulse(long now) {
+        if (lastPulse == 0) {
+            lastPulse = now;
+            return;
+        }
+        PerfMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordFrame(now - lastPulse);
+        }
+        accumulated += now - lastPulse;
+        lastPulse = now;
+
+        int steps = 0;
+        while (running && accumulated >= TICK_NANOS && steps < MAX_TICKS_PER_PULSE) {
+            long start = System.nanoTime();
+            step.run();
+            if (metrics != null) {
+                metrics.recordTick(System.nanoTime() - start);
+            }
+            tickCount++;
+            accumulated -= TICK_NANOS;
+            steps++;
+        }
+        if (steps == MAX_TICKS_PER_PULSE) {
+            accumulated = 0; // drop the backlog rather than spiral
+        }
+        if (running) {
+            long start = System.nanoTime();
+            render.run();
+            if (metrics != null) {
+                metrics.recordSync(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package pvz.model;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random numbers for one game, all derived from one seed. Gameplay draws (spawn lanes and
+ * positions, zombie types) come from their own stream and are only taken on the simulation tick,
+ * so the seed plus the player's inputs (see {@link Replay}) play the same game again. Cosmetic
+ * draws, like where sky sun falls, use a second stream so they can't shift the gameplay one.
+ */
+public final class GameRandom {
+    private final long seed;
+    private final Random gameplay;
+    private final Random cosmetic;
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.gameplay = new Random(seed);
+        this.cosmetic = new Random(~seed);
+    }
+
+    /** A seed for a game nobody asked to reproduce. */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** Draws that change how the game plays; simulation thread only. */
+    public Random gameplay() {
+        return gameplay;
+    }
+
+    /** Draws that only change how the game looks or sounds. */
+    public Random cosmetic() {
+        return cosmetic;
+    }
+}
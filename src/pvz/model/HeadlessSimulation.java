@@ -0,0 +1,194 @@
+package pvz.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plays a level without a window: a headless {@link World} stepped in a plain loop, as fast as the
+ * CPU allows. Zombies spawn on the same schedule as in {@link Yard} (the same zombies, for the same
+ * seed), sky sun falls every 4.5 s and is collected automatically, and an optional {@link Bot}
+ * places plants. A {@link Replay} drives it with a recorded game's inputs instead.
+ *
+ * The world's entities are built without sprites and play no sounds, and its art style (which sizes
+ * the hitboxes) is the level's own; all of that belongs to this simulation's world, so any number
+ * can run side by side, or next to a game on screen. Nothing here starts the JavaFX toolkit.
+ */
+public class HeadlessSimulation {
+    private static final int SKY_SUN_TICKS = (int) (4.5 * GameLoop.TICKS_PER_SECOND);
+    private static final int CARD_COOLDOWN_TICKS = 10 * GameLoop.TICKS_PER_SECOND;
+
+    // Centre of grid cell (0, 0) and the cell size, matching the yard's GridPane
+    private static final double FIRST_CELL_X = 227 + 10 + 36.5, FIRST_CELL_Y = 180 + 10 + 39.5;
+    private static final double CELL_WIDTH = 73, CELL_HEIGHT = 79;
+
+    /** Decides what to plant; called once before every tick. */
+    public interface Bot {
+        void onTick(HeadlessSimulation sim);
+    }
+
+    /** Outcome of {@link #run(long)}. */
+    public record Result(boolean won, boolean lost, long ticks, int zombiesSpawned, int zombiesKilled,
+                         int plantsPlaced, int plantsLost, int sunLeft) {
+        public double simulatedSeconds() {
+            return ticks * GameLoop.TICK_SECONDS;
+        }
+    }
+
+    private final World world = new World(true);
+    private final ZombieSpawner spawner;
+    private final long levelTicks;
+    private final Map<Class<? extends Plant>, Long> readyAtTick = new HashMap<>();
+    private Bot bot = sim -> { };
+
+    private int plantsPlaced;
+    private boolean lost;
+
+    public HeadlessSimulation(int levelNumber, long seed) {
+        world.setPixelArt(levelNumber == 5);
+
+        LevelRules rules = LevelRules.forLevel(levelNumber);
+        world.setRandom(new GameRandom(seed));
+        spawner = new ZombieSpawner(world, rules);
+        levelTicks = rules.isInfinite()
+                ? Long.MAX_VALUE
+                : (long) rules.getDurationSeconds() * GameLoop.TICKS_PER_SECOND;
+
+        world.setSunCounter(rules.getStartingSunCount());
+        world.setOnGameOver(() -> {
+            lost = true;
+            world.setGameOn(false);
+            world.stopPlantBehaviours();
+        });
+        for (int row = 0; row < Yard.ROWS; row++) {
+            LawnMower mower = new LawnMower(world, row);
+            world.setLawnMower(row, mower);
+            mower.setPosition(Yard.HOUSE_BOUNDARY_X, Yard.MOWER_LANE_Y[row]);
+            mower.appear(null);
+        }
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public long getTick() {
+        return world.getTickCount();
+    }
+
+    public void setBot(Bot bot) {
+        this.bot = bot != null ? bot : sim -> { };
+    }
+
+    /**
+     * Whether sky sun and sunflower sun are banked automatically (the default). Replays of games
+     * played on screen switch it off and add the sun the player clicked instead.
+     */
+    public void setAutoCollectSun(boolean autoCollectSun) {
+        world.setAutoCollectSun(autoCollectSun);
+    }
+
+    /** Whether a plant of this type could go in the cell right now (sun, cooldown and free cell). */
+    public boolean canPlant(Class<? extends Plant> type, int row, int col, int cost) {
+        return world.isGameOn()
+                && row >= 0 && row < Yard.ROWS && col >= 0 && col < Yard.COLUMNS
+                && world.getGrid()[row][col] == null
+                && world.getSunCounter() >= cost
+                && readyAtTick.getOrDefault(type, 0L) <= getTick();
+    }
+
+    /** Scene x of the centre of a grid column, as a card drop passes it to the plant constructor. */
+    public static int cellCenterX(int col) {
+        return (int) (FIRST_CELL_X + col * CELL_WIDTH);
+    }
+
+    /** Scene y of the centre of a grid row. */
+    public static int cellCenterY(int row) {
+        return (int) (FIRST_CELL_Y + row * CELL_HEIGHT);
+    }
+
+    /** Place a plant the way a card drop does; returns null when the sun, cooldown or cell says no. */
+    public Plant plant(Class<? extends Plant> type, int row, int col) {
+        Plant plant;
+        try {
+            plant = type.getDeclaredConstructor(World.class, int.class, int.class).newInstance(world, cellCenterX(col), cellCenterY(row));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot build plant " + type.getSimpleName(), e);
+        }
+        if (!canPlant(type, row, col, plant.getCost())) {
+            return null;
+        }
+        Replay inputLog = world.getInputLog();
+        if (inputLog != null) {
+            inputLog.recordPlace(getTick(), type, row, col);
+        }
+        put(plant, row, col);
+        readyAtTick.put(type, getTick() + CARD_COOLDOWN_TICKS);
+        return plant;
+    }
+
+    /**
+     * Place a plant from a replay: the recorded game already accepted it, so only the cell is
+     * checked (a taken cell means the replay has gone out of step and the input is dropped).
+     */
+    void placeRecorded(Class<? extends Plant> type, int row, int col) {
+        if (world.getGrid()[row][col] != null) {
+            System.out.println("Replay out of step: cell [" + row + "][" + col + "] is taken at tick " + getTick());
+            return;
+        }
+        try {
+            put(type.getDeclaredConstructor(World.class, int.class, int.class).newInstance(world, cellCenterX(col), cellCenterY(row)), row, col);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot build plant " + type.getSimpleName(), e);
+        }
+    }
+
+    /** Dig up the plant in a cell, as the shovel card does. */
+    public void shovel(int row, int col) {
+        if (!(world.getGrid()[row][col] instanceof Plant plant)) {
+            return;
+        }
+        Replay inputLog = world.getInputLog();
+        if (inputLog != null) {
+            inputLog.recordShovel(getTick(), row, col);
+        }
+        world.removePlant(plant);
+        plant.disappear(null);
+        world.getEvents().publish(GameEvents.Type.PLANT_REMOVED, plant, row, 0);
+    }
+
+    private void put(Plant plant, int row, int col) {
+        world.addPlant(plant, row, col);
+        world.addSun(-plant.getCost());
+        plant.setAlive(true);
+        plant.startBehaviour();
+        plantsPlaced++;
+        world.getEvents().publish(GameEvents.Type.PLANT_PLACED, plant, row, plant.getCost());
+    }
+
+    /** Advance one tick: bot, spawns, sky sun, then the world. */
+    public void step() {
+        if (!world.isGameOn()) {
+            return;
+        }
+        bot.onTick(this);
+        spawner.tick();
+        if (world.isAutoCollectSun() && getTick() > 0 && getTick() % SKY_SUN_TICKS == 0) {
+            world.addSun(25);
+        }
+        world.step();
+    }
+
+    /** Step until the level is won or lost, or {@code maxTicks} have passed (level 4 never ends on its own). */
+    public Result run(long maxTicks) {
+        long start = getTick();
+        while (world.isGameOn() && getTick() < levelTicks && getTick() - start < maxTicks) {
+            step();
+        }
+        int zombiesLeft = world.getZombies().size();
+        int plantsLeft = world.getPlants().size();
+        boolean won = !lost && getTick() >= levelTicks;
+        int zombiesSpawned = spawner.getSpawned();
+        return new Result(won, lost, getTick(), zombiesSpawned, zombiesSpawned - zombiesLeft,
+                plantsPlaced, plantsPlaced - plantsLeft, world.getSunCounter());
+    }
+}
@@ -1,27 +1,22 @@
 package pvz.model;
 
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
-import pvz.util.AssetLoader;
 
 public class HelmetZombie extends Zombie {
-    public HelmetZombie() {
+    public HelmetZombie(World world) {
         super(10, 0.4, 150);
-        String spritePath = Yard.isPixelArtMode()
+        setWorld(world);
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartzombies/PixelBucketHeadZombie.gif"
             : "images/zombies/BucketheadZombie.gif";
-        elementImage = new ImageView(AssetLoader.loadImage(spritePath));
-        elementImage.setFitWidth(135);
-        elementImage.setFitHeight(120);
-        elementImage.setPreserveRatio(true);
+        elementImage = loadSprite(spritePath, 135, 120);
     }
 
-    public HelmetZombie(int x, int y) {
-        this();
+    public HelmetZombie(World world, int x, int y) {
+        this(world);
         super.x = x;
         super.y = y;
-        elementImage.setLayoutX(x);
-        elementImage.setLayoutY(y);
+        setPosition(x, y);
     }
 
         @Override
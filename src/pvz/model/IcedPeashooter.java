@@ -1,111 +1,47 @@
 package pvz.model;
 
-import javafx.application.Platform;
 import javafx.scene.image.ImageView;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-
-import pvz.util.AssetLoader;
 
 public class IcedPeashooter extends Plant {
     public IcedPeashooter() {
         super(175, 20, 100);
     }
 
-    public IcedPeashooter(int x, int y) {
+    public IcedPeashooter(World world, int x, int y) {
         this();
+        setWorld(world);
         this.x = x;
         this.y = y;
-        String spritePath = Yard.isPixelArtMode()
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartplants/pixelIcePeaShooter.gif"
             : "images/plants/icedpeashooter.gif";
-        ImageView sprite = new ImageView(AssetLoader.loadImage(spritePath));
-        sprite.setFitWidth(90);
-        sprite.setFitHeight(85);
-        sprite.setPreserveRatio(true);
-        sprite.setLayoutX((x - sprite.getFitWidth() / 2) + 5);
-        sprite.setLayoutY((y - sprite.getFitHeight() / 2) - 25);
+        ImageView sprite = loadSprite(spritePath, 90, 85);
+        setPosition((x - 90 / 2.0) + 5, (y - 85 / 2.0) - 25);
         setSprite(sprite);
     }
 
     @Override
-    public void run() {
-        while (isAlive() && !Thread.currentThread().isInterrupted()) {
-            try {
-                Thread.sleep(3500);
-                if (!isAlive() || Thread.currentThread().isInterrupted()) {
-                    break;
-                }
-
-                if (!hasZombieInLane()) {
-                    continue;
-                }
+    protected long getActionIntervalMillis() {
+        return 3500;
+    }
 
-                Platform.runLater(() -> {
-                    if (!isAlive()) {
-                        return;
-                    }
-                    Pea projectile = new Pea(15, this);
-                    projectile.enableSlowEffect(0.5, 4000);
-                    projectile.setTintHue(0.5); // shift pea color toward light blue for ice shots
-                    projectile.getElementImage().setLayoutX(getSprite().getLayoutX() + 65);
-                    projectile.getElementImage().setLayoutY(getSprite().getLayoutY() + 31);
-                    projectile.appear(Yard.root);
-                    Yard.peas.add(projectile);
-                    Thread projectileThread = new Thread(projectile);
-                    projectileThread.setDaemon(true);
-                    projectileThread.start();
-                    playShootSound();
-                });
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception ex) {
-                System.out.println("IcedPeashooter interrupted: " + ex.getMessage());
-            }
+    @Override
+    public void run() {
+        if (!isAlive() || !world.isGameOn() || !hasZombieInLane()) {
+            return;
         }
-        Platform.runLater(() -> disappear(Yard.root));
-        System.out.println("IcedPeashooter stopped.");
+        Pea projectile = world.getProjectiles().fire(15, this, posX + 65, posY + 31);
+        projectile.enableSlowEffect(0.5, 4000);
+        projectile.setTintHue(0.5); // shift pea color toward light blue for ice shots
+        playShootSound();
     }
 
     private boolean hasZombieInLane() {
-        ImageView sprite = getSprite();
-        if (sprite == null) {
-            return false;
-        }
-
-        double shooterY = sprite.getLayoutY();
-        double shooterX = sprite.getLayoutX();
-        final double laneTolerance = 45.0; // pixels
-
-        synchronized (Yard.zombies) {
-            for (Zombie zombie : Yard.zombies) {
-                if (zombie == null || !zombie.isAlive()) {
-                    continue;
-                }
-                ImageView zombieView = zombie.getElementImage();
-                if (zombieView == null) {
-                    continue;
-                }
-                double zombieY = zombieView.getLayoutY();
-                double zombieX = zombieView.getLayoutX();
-                if (Math.abs(zombieY - shooterY) <= laneTolerance && zombieX > shooterX) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        // getX() holds the grid row once the plant is placed
+        return world.getZombieLanes().anyAfter(getX(), posX);
     }
 
     private void playShootSound() {
-        try {
-            String audioPath = getClass().getResource("/pvz/music/peashooter-shoot.mp3").toExternalForm();
-            Media sound = new Media(audioPath);
-            MediaPlayer player = new MediaPlayer(sound);
-            player.setVolume(0.3);
-            player.play();
-        } catch (Exception ex) {
-            System.out.println("Audio error: " + ex.getMessage());
-        }
+        world.playSound("/pvz/music/peashooter-shoot.mp3", 0.3);
     }
 }
@@ -0,0 +1,184 @@
+package pvz.model;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-row spatial index for yard entities.
+ *
+ * Each lane keeps its entities sorted by their left edge (with the keys cached in a primitive
+ * array), so "who is in front of me in this row" and collision lookups are a binary search plus a
+ * short scan instead of a walk over every zombie or plant on the lawn. Adds and removals are
+ * incremental; movers call {@link #refresh()} once per tick, which is a near-linear insertion sort
+ * because entities only shift a few pixels between ticks.
+ */
+public class LaneIndex<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ToDoubleFunction<T> position;
+    private final Lane[] lanes;
+    private final Map<T, Integer> laneOf = new IdentityHashMap<>();
+
+    public LaneIndex(int laneCount, ToDoubleFunction<T> position) {
+        this.position = position;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    public synchronized void add(T item, int lane) {
+        if (item == null || lane < 0 || lane >= lanes.length || laneOf.containsKey(item)) {
+            return;
+        }
+        lanes[lane].insert(item, position.applyAsDouble(item));
+        laneOf.put(item, lane);
+    }
+
+    public synchronized boolean remove(T item) {
+        Integer lane = laneOf.remove(item);
+        return lane != null && lanes[lane].remove(item);
+    }
+
+    /** Re-read every position and restore the sort order after entities have moved. */
+    public synchronized void refresh() {
+        for (Lane lane : lanes) {
+            for (int i = 0; i < lane.size; i++) {
+                lane.keys[i] = position.applyAsDouble(itemAt(lane, i));
+            }
+            lane.resort();
+        }
+    }
+
+    public synchronized void clear() {
+        for (Lane lane : lanes) {
+            lane.clear();
+        }
+        laneOf.clear();
+    }
+
+    public synchronized int size(int lane) {
+        return validLane(lane) ? lanes[lane].size : 0;
+    }
+
+    /** @return true if the lane holds any entity whose left edge is strictly past {@code x}. */
+    public synchronized boolean anyAfter(int lane, double x) {
+        if (!validLane(lane)) {
+            return false;
+        }
+        Lane l = lanes[lane];
+        return l.size > 0 && l.keys[l.size - 1] > x;
+    }
+
+    /** @return the left-most entity with its left edge in [fromX, toX] that satisfies {@code match}. */
+    public synchronized T first(int lane, double fromX, double toX, Predicate<? super T> match) {
+        if (!validLane(lane)) {
+            return null;
+        }
+        Lane l = lanes[lane];
+        for (int i = l.lowerBound(fromX); i < l.size && l.keys[i] <= toX; i++) {
+            T item = itemAt(l, i);
+            if (match.test(item)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /** Copy every entity with its left edge in [fromX, toX] into {@code out}, left to right. */
+    public synchronized void collect(int lane, double fromX, double toX, List<? super T> out) {
+        if (!validLane(lane)) {
+            return;
+        }
+        Lane l = lanes[lane];
+        for (int i = l.lowerBound(fromX); i < l.size && l.keys[i] <= toX; i++) {
+            out.add(itemAt(l, i));
+        }
+    }
+
+    private boolean validLane(int lane) {
+        return lane >= 0 && lane < lanes.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T itemAt(Lane lane, int index) {
+        return (T) lane.items[index];
+    }
+
+    private static final class Lane {
+        private Object[] items = new Object[INITIAL_CAPACITY];
+        private double[] keys = new double[INITIAL_CAPACITY];
+        private int size;
+
+        void insert(Object item, double key) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int at = upperBound(key);
+            System.arraycopy(items, at, items, at + 1, size - at);
+            System.arraycopy(keys, at, keys, at + 1, size - at);
+            items[at] = item;
+            keys[at] = key;
+            size++;
+        }
+
+        boolean remove(Object item) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == item) {
+                    System.arraycopy(items, i + 1, items, i, size - i - 1);
+                    System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                    items[--size] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void resort() {
+            for (int i = 1; i < size; i++) {
+                Object item = items[i];
+                double key = keys[i];
+                int j = i - 1;
+                while (j >= 0 && keys[j] > key) {
+                    items[j + 1] = items[j];
+                    keys[j + 1] = keys[j];
+                    j--;
+                }
+                items[j + 1] = item;
+                keys[j + 1] = key;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(items, 0, size, null);
+            size = 0;
+        }
+
+        /** First index whose key is >= x. */
+        int lowerBound(double x) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] < x) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /** First index whose key is > x. */
+        int upperBound(double x) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] <= x) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -1,30 +1,27 @@
 package pvz.model;
 
-import javafx.application.Platform;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 
-import pvz.util.AssetLoader;
+import java.util.ArrayList;
 
 /**
  * Handles the classic row-clearing lawn mower behaviour.
  */
 public class LawnMower extends Characters {
     private final int row;
+    private static final double SPEED_PER_TICK = 8; // pixels per simulation tick
+
     private volatile boolean active;
+    private final ArrayList<Zombie> inReach = new ArrayList<>();
 
-    public LawnMower(int row) {
+    public LawnMower(World world, int row) {
+        setWorld(world);
         this.row = row;
         this.health = Integer.MAX_VALUE;
-        String spritePath = Yard.isPixelArtMode()
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartzombies/PixelLawnCleanerImage1.png"
             : "images/yard-related/lawnmower.png";
-        ImageView view = new ImageView(AssetLoader.loadImage(spritePath));
-        view.setFitWidth(90);
-        view.setFitHeight(70);
-        view.setPreserveRatio(true);
-        this.elementImage = view;
+        this.elementImage = loadSprite(spritePath, 90, 70);
     }
 
     public boolean isActive() {
@@ -33,7 +30,7 @@ public class LawnMower extends Characters {
 
     @Override
     public void appear(Pane root) {
-        if (!root.getChildren().contains(elementImage)) {
+        if (elementImage != null && root != null && !root.getChildren().contains(elementImage)) {
             root.getChildren().add(elementImage);
         }
         setAlive(true);
@@ -41,51 +38,42 @@ public class LawnMower extends Characters {
 
     @Override
     public void disappear(Pane root) {
-        Platform.runLater(() -> root.getChildren().remove(elementImage));
+        if (elementImage != null && root != null) {
+            world.post(() -> root.getChildren().remove(elementImage));
+        }
         setAlive(false);
     }
 
-    public void activate(AnchorPane root) {
-        if (active) return;
+    public void activate() {
         active = true;
+    }
 
-        double stopX = Yard.WIDTH + elementImage.getFitWidth();
-        final double speed = 8; // pixels per frame (~160px/sec at 20ms frame pacing)
-
-        Platform.runLater(() -> {
-            javafx.animation.AnimationTimer timer = new javafx.animation.AnimationTimer() {
-                @Override
-                public void handle(long now) {
-                    if (!Yard.gameOn) {
-                        stop();
-                        disappear(root);
-                        return;
-                    }
+    /** Roll the mower one step down its row once activated. */
+    public void tick() {
+        if (!active || !isAlive()) {
+            return;
+        }
+        if (!world.isGameOn()) {
+            disappear(world.getRoot());
+            return;
+        }
 
-                    elementImage.setLayoutX(elementImage.getLayoutX() + speed);
-                    squashZombies();
+        moveBy(SPEED_PER_TICK);
+        squashZombies();
 
-                    if (elementImage.getLayoutX() >= stopX) {
-                        stop();
-                        disappear(root);
-                    }
-                }
-            };
-            timer.start();
-        });
+        if (posX >= Yard.WIDTH + width) {
+            disappear(world.getRoot());
+        }
     }
 
     private void squashZombies() {
-        java.util.List<Zombie> snapshot;
-        synchronized (Yard.zombies) {
-            snapshot = new java.util.ArrayList<>(Yard.zombies);
-        }
-        snapshot.forEach(zombie -> {
-            if (zombie != null && zombie.getElementImage() != null &&
-                    elementImage.getBoundsInParent().intersects(zombie.getElementImage().getBoundsInParent())) {
+        world.getZombieLanes().collect(row, posX - Yard.MAX_ZOMBIE_WIDTH, posX + width, inReach);
+        for (Zombie zombie : inReach) {
+            if (overlaps(zombie)) {
                 zombie.takeDamage(Integer.MAX_VALUE);
             }
-        });
+        }
+        inReach.clear();
     }
 
     @Override
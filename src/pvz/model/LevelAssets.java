@@ -0,0 +1,176 @@
+package pvz.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import pvz.util.AssetPreloader;
+
+/**
+ * Asset manifests used to preload a level (or the Wall-nut Bowling minigame) while the loading
+ * screen is up. Paths mirror the ones the yard, cards and entities load at runtime; the sprite
+ * lists are what entities animate, and are built into sprite atlases.
+ */
+public final class LevelAssets {
+    private static final List<String> COMMON_IMAGES = List.of(
+            "/pvz/images/yard-related/woodenBox-photoshop.png",
+            "/pvz/images/yard-related/progressBar.png",
+            "/pvz/images/others/pea.png",
+            "/pvz/images/others/sun.png",
+            "/pvz/images/others/shovel.png",
+            "/pvz/images/others/Ready.png",
+            "/pvz/images/others/Set.png",
+            "/pvz/images/others/Plant.png",
+            "/pvz/images/others/HugeWave.gif",
+            "/pvz/images/others/ZombiesWin.png",
+            "/pvz/images/others/PlantsWin.png",
+            "/pvz/images/cards/shovel.png",
+            "/pvz/images/cards/PeaShooterCard.png",
+            "/pvz/images/cards/sunflowerCard.png",
+            "/pvz/images/cards/potatoCard.png",
+            "/pvz/images/cards/cherryCard.png",
+            "/pvz/images/cards/icedpeashooterCard.png",
+            "/pvz/images/cards/torchwoodCard.png",
+            "/pvz/images/cards/repeaterCard.png",
+            "/pvz/images/lockedCards/cherryLockedCard.png",
+            "/pvz/images/lockedCards/snowpeaLockedCard.png",
+            "/pvz/images/lockedCards/torchWoodLockedCard.png",
+            "/pvz/images/lockedCards/repeaterLockedCard.png",
+            "/pvz/images/plants/peashooter.png",
+            "/pvz/images/plants/sunflower.png",
+            "/pvz/images/plants/potato.png",
+            "/pvz/images/plants/cherry.png",
+            "/pvz/images/plants/torchWood.png",
+            "/pvz/images/plants/repeater.png"
+    );
+
+    private static final List<String> COMMON_SPRITES = List.of(
+            "/pvz/images/zombies/ZombieDie.gif",
+            "/pvz/images/zombies/FootballZombieDie.gif"
+    );
+
+    private static final List<String> STANDARD_SPRITES = List.of(
+            "/pvz/images/plants/peashooter.gif",
+            "/pvz/images/plants/sunflower.gif",
+            "/pvz/images/plants/potato.gif",
+            "/pvz/images/plants/potato-cracked1.gif",
+            "/pvz/images/plants/potato-cracked2.gif",
+            "/pvz/images/plants/icedpeashooter.gif",
+            "/pvz/images/plants/repeater.gif",
+            "/pvz/images/plants/torchWood.gif",
+            "/pvz/images/yard-related/lawnmower.png",
+            "/pvz/images/zombies/Zombie.gif",
+            "/pvz/images/zombies/ZombieAttack.gif",
+            "/pvz/images/zombies/ConeZombie.gif",
+            "/pvz/images/zombies/ConeheadZombieAttack.gif",
+            "/pvz/images/zombies/BucketheadZombie.gif",
+            "/pvz/images/zombies/BucketheadZombieAttack.gif",
+            "/pvz/images/zombies/FootballZombie.gif",
+            "/pvz/images/zombies/FootballZombieAttack.gif"
+    );
+
+    private static final List<String> PIXEL_SPRITES = List.of(
+            "/pvz/images/pixelart/pixelartplants/pixelPeaShooter.gif",
+            "/pvz/images/pixelart/pixelartplants/PixelSunFlower.gif",
+            "/pvz/images/pixelart/pixelartplants/PixelPotato.gif",
+            "/pvz/images/pixelart/pixelartplants/PixelPotatoCracked2.gif",
+            "/pvz/images/pixelart/pixelartplants/pixelIcePeaShooter.gif",
+            "/pvz/images/pixelart/pixelartplants/PixelRepeater.gif",
+            "/pvz/images/pixelart/pixelartplants/PixelTorchWood.gif",
+            "/pvz/images/pixelart/pixelartplants/pixelCherry.png",
+            "/pvz/images/pixelart/pixelartzombies/PixelLawnCleanerImage1.png",
+            "/pvz/images/pixelart/pixelartzombies/PixelDefaultZombie.gif",
+            "/pvz/images/pixelart/pixelartzombies/PixelConeHeadZombie.gif",
+            "/pvz/images/pixelart/pixelartzombies/PixelBucketHeadZombie.gif",
+            "/pvz/images/pixelart/pixelartzombies/PixelFootballZombie.gif"
+    );
+
+    private static final List<String> LEVEL_SOUNDS = List.of(
+            "/pvz/music/peashooter-shoot.mp3",
+            "/pvz/music/plant placed.mp3",
+            "/pvz/music/shovel plant.mp3",
+            "/pvz/music/sun pickup.mp3",
+            "/pvz/music/card selected.mp3",
+            "/pvz/music/card unavailable.mp3",
+            "/pvz/music/zombie eating.mp3",
+            "/pvz/music/zombie s1.mp3",
+            "/pvz/music/zombie s2.mp3",
+            "/pvz/music/zombie s3.mp3",
+            "/pvz/music/zombie wave.mp3",
+            "/pvz/music/zombies arrive.mp3",
+            "/pvz/music/level win.mp3",
+            "/pvz/music/level loss.mp3"
+    );
+
+    private static final List<String> WALNUT_IMAGES = List.of(
+            "/pvz/images/Wall-nutBawling/background1.png",
+            "/pvz/images/Wall-nutBawling/conveyor.gif",
+            "/pvz/images/Wall-nutBawling/wallnut_card_25_50x70.png",
+            "/pvz/images/yard-related/lawnmower.png",
+            "/pvz/images/others/sun.png",
+            "/pvz/images/others/HugeWave.gif",
+            "/pvz/images/others/ZombiesWin.png",
+            "/pvz/images/others/PlantsWin.png"
+    );
+
+    private static final List<String> WALNUT_SPRITES = List.of(
+            "/pvz/images/Wall-nutBawling/walnut_roll_smooth_loop_faster.gif",
+            "/pvz/images/zombies/Zombie.gif",
+            "/pvz/images/zombies/ConeZombie.gif",
+            "/pvz/images/zombies/BucketheadZombie.gif",
+            "/pvz/images/zombies/FootballZombie.gif",
+            "/pvz/images/zombies/ZombieDie.gif",
+            "/pvz/images/zombies/FootballZombieDie.gif"
+    );
+
+    private static final List<String> WALNUT_SOUNDS = List.of(
+            "/pvz/music/bowlingimpact.mp3",
+            "/pvz/music/bowlingimpact2.mp3",
+            "/pvz/music/zombies arrive.mp3",
+            "/pvz/music/zombie wave.mp3",
+            "/pvz/music/sun pickup.mp3",
+            "/pvz/music/card selected.mp3",
+            "/pvz/music/zombie s1.mp3",
+            "/pvz/music/zombie s2.mp3",
+            "/pvz/music/zombie s3.mp3",
+            "/pvz/music/level win.mp3",
+            "/pvz/music/level loss.mp3"
+    );
+
+    private LevelAssets() {
+    }
+
+    public static AssetPreloader forLevel(int levelNumber) {
+        List<String> images = new ArrayList<>(COMMON_IMAGES);
+        List<String> sprites = new ArrayList<>(COMMON_SPRITES);
+        images.add(yardBackground(levelNumber));
+        sprites.addAll(levelNumber == 5 ? PIXEL_SPRITES : STANDARD_SPRITES);
+        if (levelNumber == 3) {
+            images.add("/pvz/images/cards/sunflowerCard_christmas.png");
+            images.add("/pvz/images/cards/potatoCard_christmas.png");
+            sprites.add("/pvz/images/plants/sunflowerChristmas.gif");
+            sprites.add("/pvz/images/plants/potatoChristmas.gif");
+        }
+        for (int i = 0; i < 8; i++) {
+            images.add("/pvz/images/yardStaticZombies/" + i + ".gif");
+        }
+        return new AssetPreloader(images, sprites, LEVEL_SOUNDS);
+    }
+
+    public static AssetPreloader forWalnutBowling() {
+        List<String> images = new ArrayList<>(WALNUT_IMAGES);
+        for (int i = 0; i < 8; i++) {
+            images.add("/pvz/images/yardStaticZombies/" + i + ".gif");
+        }
+        return new AssetPreloader(images, WALNUT_SPRITES, WALNUT_SOUNDS);
+    }
+
+    private static String yardBackground(int levelNumber) {
+        return switch (levelNumber) {
+            case 2 -> "/pvz/images/yard-related/candyyard.png";
+            case 3 -> "/pvz/images/yard-related/ChristmasYard.png";
+            case 4 -> "/pvz/images/yard-related/halloweenyard.png";
+            case 5 -> "/pvz/images/yard-related/pixelartyard.png";
+            default -> "/pvz/images/yard-related/Yard.png";
+        };
+    }
+}
@@ -0,0 +1,190 @@
+package pvz.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Settings for one level, read from its wave definition file: how long it lasts, the starting
+ * sun, how often zombies spawn and how fast that speeds up, which lanes and zombie types they
+ * favour, and the huge waves. Shared by the on-screen {@link Yard} and {@link HeadlessSimulation}
+ * so both play the same level; {@link ZombieSpawner} turns it into spawns.
+ *
+ * Level N is described by /pvz/waves/levelN.properties (see level1.properties for every key), so
+ * a new level only needs a new file. A level without a file gets plain zombies every 18 seconds.
+ */
+public final class LevelRules {
+    // Zombies spawn off-screen to the right, somewhere in this x range
+    public static final int SPAWN_MIN_X = 957, SPAWN_MAX_X = 1202;
+
+    /** A huge wave: {@code count} extra zombies arriving over {@code spreadSeconds} from {@code atSecond}. */
+    public record Wave(int atSecond, int count, int spreadSeconds) { }
+
+    private final int levelNumber;
+    private final boolean infinite;
+    private final int durationSeconds;
+    private final int startingSunCount;
+    private final int initialSpawnIntervalSeconds;
+    private final int minSpawnIntervalSeconds;
+    private final int spawnIntervalDecreaseRate;
+    private final int[] laneWeights;
+    private final int laneWeightTotal;
+    private final List<Constructor<? extends Zombie>> zombieTypes = new ArrayList<>();
+    private final List<Integer> zombieWeights = new ArrayList<>();
+    private int zombieWeightTotal;
+    private final List<Wave> waves = new ArrayList<>();
+    private final int waveEverySeconds;
+
+    private LevelRules(int levelNumber, Properties file) {
+        this.levelNumber = levelNumber;
+        infinite = Boolean.parseBoolean(file.getProperty("infinite", "false"));
+        durationSeconds = intValue(file, "duration", 130);
+        startingSunCount = intValue(file, "startingSun", Yard.SUNCOUNTER);
+        initialSpawnIntervalSeconds = intValue(file, "interval", 18);
+        minSpawnIntervalSeconds = intValue(file, "minInterval", 5);
+        spawnIntervalDecreaseRate = intValue(file, "speedup", 1);
+        waveEverySeconds = intValue(file, "waveEvery", 0);
+
+        String[] lanes = file.getProperty("lanes", "1,1,1,1,1").split(",");
+        if (lanes.length != Yard.ROWS) {
+            throw new IllegalArgumentException("Level " + levelNumber + ": lanes needs " + Yard.ROWS + " weights");
+        }
+        laneWeights = new int[lanes.length];
+        int total = 0;
+        for (int i = 0; i < lanes.length; i++) {
+            laneWeights[i] = Integer.parseInt(lanes[i].trim());
+            total += laneWeights[i];
+        }
+        laneWeightTotal = total;
+
+        for (String entry : file.getProperty("mix", "DefaultZombie:1").split(",")) {
+            String[] parts = entry.split(":");
+            addZombieType(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+
+        String waveList = file.getProperty("waves", "").trim();
+        if (!waveList.isEmpty()) {
+            for (String entry : waveList.split(",")) {
+                String[] parts = entry.split(":");
+                waves.add(new Wave(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                        Integer.parseInt(parts[2].trim())));
+            }
+            waves.sort((a, b) -> Integer.compare(a.atSecond(), b.atSecond()));
+        }
+        if (laneWeightTotal <= 0 || zombieWeightTotal <= 0 || initialSpawnIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("Level " + levelNumber + ": no lanes, zombies or spawn interval");
+        }
+    }
+
+    /** The rules in /pvz/waves/level{@code levelNumber}.properties, or the defaults if there is no such file. */
+    public static LevelRules forLevel(int levelNumber) {
+        Properties file = new Properties();
+        String path = "/pvz/waves/level" + levelNumber + ".properties";
+        try (InputStream in = LevelRules.class.getResourceAsStream(path)) {
+            if (in != null) {
+                file.load(in);
+            } else {
+                System.out.println("No wave file " + path + ", using the default level rules");
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read " + path + ": " + e.getMessage());
+        }
+        try {
+            return new LevelRules(levelNumber, file);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Bad wave file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static int intValue(Properties file, String key, int defaultValue) {
+        String value = file.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    // Zombie types are named by class, e.g. ConeZombie; any Zombie with a (world, x, y) constructor will do
+    private void addZombieType(String name, int weight) {
+        try {
+            Class<? extends Zombie> type = Class.forName("pvz.model." + name).asSubclass(Zombie.class);
+            zombieTypes.add(type.getConstructor(World.class, int.class, int.class));
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("unknown zombie type " + name, e);
+        }
+        zombieWeights.add(weight);
+        zombieWeightTotal += weight;
+    }
+
+    public int getLevelNumber() {
+        return levelNumber;
+    }
+
+    /** An infinite level has no timer; it runs until the zombies get through. */
+    public boolean isInfinite() {
+        return infinite;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getInitialSpawnIntervalSeconds() {
+        return initialSpawnIntervalSeconds;
+    }
+
+    public int getStartingSunCount() {
+        return startingSunCount;
+    }
+
+    /** Huge waves in the order they come. */
+    public List<Wave> getWaves() {
+        return waves;
+    }
+
+    /** Seconds between repeats of the last huge wave, or 0 if it doesn't repeat. */
+    public int getWaveEverySeconds() {
+        return waveEverySeconds;
+    }
+
+    /**
+     * Wait before the next spawn. Every spawn shortens it by the level's rate for each 10 seconds
+     * played so far, down to the level's minimum.
+     */
+    public int nextSpawnInterval(int currentSeconds, long elapsedMillis) {
+        long elapsedSteps = elapsedMillis / 10000;
+        return Math.max(minSpawnIntervalSeconds, currentSeconds - (int) (elapsedSteps * spawnIntervalDecreaseRate));
+    }
+
+    /** Pick a lane by the level's lane weights. */
+    public int pickLane(Random random) {
+        int roll = random.nextInt(laneWeightTotal);
+        for (int lane = 0; ; lane++) {
+            roll -= laneWeights[lane];
+            if (roll < 0) {
+                return lane;
+            }
+        }
+    }
+
+    /** Pick the next zombie by the level's type mix. */
+    public Zombie createZombie(World world, int x, int y, Random random) {
+        double roll = random.nextDouble();
+        int cumulative = 0;
+        int last = zombieTypes.size() - 1;
+        int type = 0;
+        for (; type < last; type++) {
+            cumulative += zombieWeights.get(type);
+            if (roll < cumulative / (double) zombieWeightTotal) {
+                break;
+            }
+        }
+        try {
+            return zombieTypes.get(type).newInstance(world, x, y);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create " + zombieTypes.get(type).getName(), e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package pvz.model;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
@@ -11,12 +12,14 @@ import javafx.util.Duration;
 import java.util.Random;
 
 import pvz.util.AssetLoader;
+import pvz.util.AssetPreloader;
 
 public class LoadingScreen
 {
 	private static AnchorPane root;
 
-	private static final int LOADING_SCREEN_TIME = 7;
+	// Shortest time the screen stays up, so a fast preload doesn't just flash the image
+	private static final double MIN_LOADING_SCREEN_SECONDS = 1.5;
 
 	private static final String[] LOADING_SCREEN_PATHS = {
 			"images/loadingScreens/feastivus_loadingscreen.png",
@@ -31,6 +34,13 @@ public class LoadingScreen
 	}
 
 	public static void show(Stage stage, Runnable onFinished)
+	{
+		show(stage, AssetPreloader.empty(), onFinished);
+	}
+
+	/* Shows the loading screen while the preloader decodes assets on its worker pool; the
+	 progress bar tracks real progress and onFinished runs as soon as loading is done. */
+	public static void show(Stage stage, AssetPreloader preloader, Runnable onFinished)
 	{
 		// Root AnchorPane
 		root = new AnchorPane();
@@ -55,6 +65,14 @@ public class LoadingScreen
 		// Add ImageView to child AnchorPane
 		childPane.getChildren().add(backgroundImage);
 
+		// Progress bar along the bottom edge
+		ProgressBar progressBar = new ProgressBar(0);
+		progressBar.setPrefWidth(400);
+		progressBar.setLayoutX((Yard.WIDTH - 400) / 2.0);
+		progressBar.setLayoutY(Yard.HEIGHT - 50);
+		progressBar.setStyle("-fx-accent: green;");
+		childPane.getChildren().add(progressBar);
+
 		// Add child AnchorPane to root
 		root.getChildren().add(childPane);
 
@@ -62,16 +80,25 @@ public class LoadingScreen
 		Scene scene = new Scene(root, Yard.WIDTH, Yard.HEIGHT);
 		Platform.runLater(() -> stage.setScene(scene));
 
-		// Pause for LOADING_SCREEN_TIME seconds
-		PauseTransition pause = new PauseTransition(Duration.seconds(LOADING_SCREEN_TIME));
-		pause.setOnFinished(event -> {
+		// Leave once both the preload and the minimum display time are done
+		int[] pending = {2};
+		Runnable finishOne = () -> {
+			if (--pending[0] > 0) {
+				return;
+			}
 			System.out.println("Exited Loading Screen");
 			if (onFinished != null) {
 				Platform.runLater(onFinished);
 			}
-		});
+		};
 
+		PauseTransition pause = new PauseTransition(Duration.seconds(MIN_LOADING_SCREEN_SECONDS));
+		pause.setOnFinished(event -> finishOne.run());
 		pause.play();
+
+		preloader.start(
+				progress -> progressBar.setProgress(Math.max(progressBar.getProgress(), progress)),
+				finishOne);
 	}
 
 	public static void showStartScreen(AnchorPane root)
@@ -11,6 +11,9 @@ public abstract class MainElements
 	// Now all elements inherit an imageview!
 	protected ImageView elementImage;
 
+	// The game this element belongs to, set when it is placed or spawned.
+	protected World world;
+
 	public MainElements()
 	{
 		// position to be initialized with some dimensions.
@@ -46,6 +49,14 @@ public abstract class MainElements
 		this.elementImage = elementImage;
 	}
 
+	public World getWorld() {
+		return world;
+	}
+
+	public void setWorld(World world) {
+		this.world = world;
+	}
+
 	public abstract void appear(Pane root);
 	public abstract void disappear(Pane root);      // when an object dies
 }
@@ -2,27 +2,20 @@ package pvz.model;
 
 import java.io.Serializable;
 
-import javafx.application.Platform;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.effect.ColorAdjust;
 import javafx.scene.layout.Pane;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-
-import pvz.util.AssetLoader;
 
 /**
  * Projectile fired by peashooters. Handles movement, collisions, and TorchWood buffs.
+ * Instances are recycled by {@link ProjectilePool}; {@link #launch} re-arms a pooled pea.
  */
 public class Pea extends Characters implements Serializable, Runnable {
-    private static final long MOVE_DELAY_MS = 3;
-    private static final double MOVE_PIXELS = 1.0;
+    // Roughly the old 1 px per 3 ms thread pacing, expressed per fixed tick.
+    private static final double MOVE_PIXELS_PER_TICK = 5.0;
+    private static final String PEA_SPRITE = "images/others/pea.png";
 
     private Plant parent;
     protected int damage;
-    private final Image normalPeaImage;
-    private final Image firePeaImage;
     private boolean firePeaActive;
     private volatile boolean cleanedUp;
     private boolean slowEffect;
@@ -30,169 +23,151 @@ public class Pea extends Characters implements Serializable, Runnable {
     private long slowDurationMs = 3000;
     private ColorAdjust tintEffect;
 
-    public Pea(int damage, Plant parent) {
+    public Pea(World world, int damage, Plant parent) {
+        setWorld(world);
         this.damage = damage;
         this.parent = parent;
         this.health = 1;
-        this.normalPeaImage = AssetLoader.loadImage("images/others/pea.png");
-        this.firePeaImage = loadImageOrFallback("images/projectiles/firePea.gif", normalPeaImage);
-        ImageView view = new ImageView(normalPeaImage);
-        view.setFitWidth(30);
-        view.setFitHeight(30);
-        view.setPreserveRatio(true);
-        this.elementImage = view;
+        this.elementImage = loadSprite(PEA_SPRITE, 30, 30);
+    }
+
+    /** Reset every per-shot field so a pooled pea behaves like a freshly built one. */
+    void launch(int damage, Plant parent, double x, double y) {
+        this.damage = damage;
+        this.parent = parent;
+        this.firePeaActive = false;
+        this.cleanedUp = false;
+        this.slowEffect = false;
+        this.slowFactor = 0.5;
+        this.slowDurationMs = 3000;
+        changeSprite(PEA_SPRITE, 30, 30);
+        if (elementImage != null) {
+            elementImage.setEffect(null);
+        }
+        setPosition(x, y);
+    }
+
+    /** @return true once the pea has hit something or left the lawn and can go back to the pool. */
+    boolean isSpent() {
+        return cleanedUp;
+    }
+
+    /** Plant that fired this pea; the pea flies down that plant's row. */
+    Plant getParent() {
+        return parent;
+    }
+
+    boolean isFirePea() {
+        return firePeaActive;
+    }
+
+    boolean hasSlowEffect() {
+        return slowEffect;
+    }
+
+    double getSlowFactor() {
+        return slowFactor;
+    }
+
+    long getSlowDurationMs() {
+        return slowDurationMs;
     }
 
     @Override
     public void appear(Pane root) {
-        Platform.runLater(() -> {
-            if (elementImage != null && !root.getChildren().contains(elementImage)) {
-                root.getChildren().add(elementImage);
-            }
-            setAlive(true);
-        });
+        setAlive(true);
+        if (elementImage == null || root == null) {
+            return;
+        }
+        if (!root.getChildren().contains(elementImage)) {
+            root.getChildren().add(elementImage);
+        }
+        elementImage.setVisible(true);
     }
 
     @Override
     public void disappear(Pane root) {
-        Platform.runLater(() -> {
-            if (elementImage != null) {
+        world.post(() -> {
+            if (elementImage != null && root != null) {
                 root.getChildren().remove(elementImage);
             }
             setAlive(false);
         });
     }
 
-    @Override
-    public void run() {
-        try {
-            if (!Yard.gameOn || Yard.timeLeft <= 0) {
-                cleanup();
-                return;
-            }
-            Thread.sleep(20); // allow sprite to appear before moving
-            while (Yard.gameOn && isAlive() && withinBounds()) {
-                Platform.runLater(() -> {
-                    changePeaToFirePea();
-                    elementImage.setLayoutX(elementImage.getLayoutX() + MOVE_PIXELS);
-                });
-                Zombie target = checkForZombieCollision();
-                if (target != null) {
-                    if (slowEffect) {
-                        target.applySlow(slowFactor, slowDurationMs);
-                    }
-                    target.takeDamage(damage);
-                    peaHitsZombieAudio();
-                    break;
-                }
-                Thread.sleep(MOVE_DELAY_MS);
+    /** Advance the pea by one simulation tick and resolve any hit. */
+    public void tick() {
+        if (cleanedUp || !isAlive()) {
+            return; // not on screen yet, or already spent
+        }
+        if (!world.isGameOn() || !withinBounds()) {
+            cleanup();
+            return;
+        }
+        changePeaToFirePea();
+        moveBy(MOVE_PIXELS_PER_TICK);
+        Zombie target = checkForZombieCollision();
+        if (target != null) {
+            if (slowEffect) {
+                target.applySlow(slowFactor, slowDurationMs);
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } finally {
+            target.takeDamage(damage);
+            world.getEvents().publish(GameEvents.Type.PEA_HIT, target, target.getLane(), damage);
             cleanup();
         }
     }
 
+    @Override
+    public void run() {
+        // Peas are advanced by the yard's GameLoop via tick().
+    }
+
     private boolean withinBounds() {
-        return parent != null && parent.isAlive() && elementImage.getLayoutX() < Yard.WIDTH;
+        return parent != null && parent.isAlive() && posX < Yard.WIDTH;
     }
 
     private void cleanup() {
-        if (cleanedUp) {
-            return;
-        }
+        // The pool removes the sprite and recycles this pea after the current pass.
         cleanedUp = true;
-        disappear(Yard.root);
-        synchronized (Yard.peas) {
-            Yard.peas.remove(this);
-        }
         setAlive(false);
     }
 
     private void changePeaToFirePea() {
-        if (firePeaActive || elementImage == null) {
+        if (firePeaActive || parent == null) {
             return;
         }
-        synchronized (Yard.plants) {
-            for (Plant plant : Yard.plants) {
-                if (!(plant instanceof TorchWood) || !plant.isAlive() || plant.getElementImage() == null) {
-                    continue;
-                }
-
-                // Prefer a lane-based check so peas ignite even if sprites do not perfectly overlap.
-                boolean sameRow = parent != null && plant.getX() == parent.getX();
-                double peaLeft = elementImage.getLayoutX();
-                double peaRight = peaLeft + elementImage.getFitWidth();
-                double torchLeft = plant.getElementImage().getLayoutX();
-                double torchRight = torchLeft + plant.getElementImage().getFitWidth();
-                boolean crossesTorch = peaRight >= torchLeft && peaLeft <= torchRight;
-
-                if (sameRow && crossesTorch) {
-                    ignitePea();
-                    return;
-                }
-
-                // Fallback to bounds intersection in case rows were not set properly.
-                if (elementImage.getBoundsInParent().intersects(plant.getElementImage().getBoundsInParent())) {
-                    ignitePea();
-                    return;
-                }
-            }
+        // Lane-based check so peas ignite even if sprites do not perfectly overlap.
+        double peaLeft = posX;
+        double peaRight = posX + width;
+        Plant torch = world.getPlantLanes().first(parent.getX(), peaLeft - Yard.MAX_PLANT_WIDTH, peaRight, plant ->
+                plant instanceof TorchWood && plant.isAlive() && peaLeft <= plant.getPosX() + plant.getWidth());
+        if (torch != null) {
+            ignite();
+            firePeaAudio();
         }
     }
 
-    private void ignitePea() {
+    /** Turn this into a fire pea, as passing a TorchWood does. */
+    void ignite() {
         firePeaActive = true;
         slowEffect = false; // torchwood burns away ice slowing
         damage = 25; // Buffed but not overpowered
 
         // Tint the standard pea orange instead of swapping to a fire gif
         setTintHue(0.08); // ~orange hue shift
-        Platform.runLater(() -> {
-            elementImage.setImage(normalPeaImage);
-            elementImage.setPreserveRatio(true);
-            elementImage.setFitWidth(34);
-            elementImage.setFitHeight(34);
-        });
-        firePeaAudio();
-    }
-
-    private synchronized Zombie checkForZombieCollision() {
-        synchronized (Yard.zombies) {
-            for (Zombie zombie : Yard.zombies) {
-                if (zombie == null || !zombie.isAlive() || zombie.getElementImage() == null) {
-                    continue;
-                }
-                if (elementImage.getBoundsInParent().intersects(zombie.getElementImage().getBoundsInParent())) {
-                    return zombie;
-                }
-            }
-        }
-        return null;
+        changeSprite(PEA_SPRITE, 34, 34);
     }
 
-    public void peaHitsZombieAudio() {
-        playAudio("/pvz/music/pea hits zombie.mp3", 0.3);
+    Zombie checkForZombieCollision() {
+        if (parent == null) {
+            return null;
+        }
+        return world.getZombieLanes().first(parent.getX(), posX - Yard.MAX_ZOMBIE_WIDTH, posX + width,
+                zombie -> zombie.isAlive() && overlaps(zombie));
     }
 
     public void firePeaAudio() {
-        playAudio("/pvz/music/fire pea.mp3", 0.3);
-    }
-
-    private void playAudio(String resourcePath, double volume) {
-        try {
-            var resource = getClass().getResource(resourcePath);
-            if (resource == null) {
-                return;
-            }
-            Media media = new Media(resource.toExternalForm());
-            MediaPlayer mediaPlayer = new MediaPlayer(media);
-            mediaPlayer.setVolume(volume);
-            mediaPlayer.play();
-        } catch (Exception e) {
-            System.out.println("Error playing pea audio: " + e.getMessage());
-        }
+        world.playSound("/pvz/music/fire pea.mp3", 0.3);
     }
 
     public int getDamage() {
@@ -214,12 +189,15 @@ public class Pea extends Characters implements Serializable, Runnable {
     }
 
     public void setTintHue(double hue) {
-        ColorAdjust adjust = new ColorAdjust();
-        adjust.setHue(hue);
-        adjust.setSaturation(0.6);
-        adjust.setBrightness(0.1);
-        this.tintEffect = adjust;
-        Platform.runLater(() -> elementImage.setEffect(adjust));
+        if (tintEffect == null) {
+            tintEffect = new ColorAdjust(); // kept for the lifetime of the pooled pea
+        }
+        tintEffect.setHue(hue);
+        tintEffect.setSaturation(0.6);
+        tintEffect.setBrightness(0.1);
+        if (elementImage != null) {
+            elementImage.setEffect(tintEffect);
+        }
     }
 
     public void shot(Zombie zombie) {
@@ -233,12 +211,4 @@ public class Pea extends Characters implements Serializable, Runnable {
     public void takeDamage(int damage) {
         // Peas are removed on impact; no separate damage handling needed.
     }
-
-    private Image loadImageOrFallback(String path, Image fallback) {
-        try {
-            return AssetLoader.loadImage(path);
-        } catch (IllegalArgumentException ex) {
-            return fallback;
-        }
-    }
 }
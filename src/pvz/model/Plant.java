@@ -1,15 +1,18 @@
 package pvz.model;
 
-import javafx.application.Platform;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 
 /**
- * Base class for all plants placed on the yard grid.
+ * Base class for all plants placed on the yard grid. A plant's {@link #run()} is one activation of
+ * its behaviour (e.g. one shot); {@link #startBehaviour()} starts a countdown that {@link #tick()}
+ * runs down on the simulation clock, so plants act on the same ticks on screen and in a headless
+ * world, and stop when the game is paused.
  */
 public abstract class Plant extends Characters implements Runnable {
     protected int cost;
     protected ImageView sprite;
+    private int ticksUntilAction = -1; // -1 when idle
 
     public Plant() {
     }
@@ -31,6 +34,7 @@ public abstract class Plant extends Characters implements Runnable {
     protected void setSprite(ImageView sprite) {
         this.sprite = sprite;
         this.elementImage = sprite;
+        syncView();
     }
 
     protected ImageView getSprite() {
@@ -42,17 +46,11 @@ public abstract class Plant extends Characters implements Runnable {
         health -= damage;
         if (health <= 0) {
             health = 0;
-            disappear(Yard.root);
-            synchronized (Yard.grid) {
-                int row = getX();
-                int col = getY();
-                if (row >= 0 && row < Yard.ROWS && col >= 0 && col < Yard.COLUMNS && Yard.grid[row][col] == this) {
-                    Yard.grid[row][col] = null;
-                }
-            }
-            synchronized (Yard.plants) {
-                Yard.plants.remove(this);
+            if (isAlive()) {
+                world.getEvents().publish(GameEvents.Type.PLANT_LOST, this, getX(), 0);
             }
+            disappear(world.getRoot());
+            world.removePlant(this);
             System.out.println("Plant has died!");
         }
     }
@@ -61,8 +59,11 @@ public abstract class Plant extends Characters implements Runnable {
     public void appear(Pane root) {
         setAlive(true);
         ImageView node = getSprite();
-        Platform.runLater(() -> {
-            if (node != null && !root.getChildren().contains(node)) {
+        if (node == null || root == null) {
+            return;
+        }
+        world.post(() -> {
+            if (!root.getChildren().contains(node)) {
                 node.setVisible(true);
                 root.getChildren().add(node);
                 System.out.println("Plant appears.");
@@ -73,13 +74,10 @@ public abstract class Plant extends Characters implements Runnable {
     @Override
     public void disappear(Pane root) {
         setAlive(false);
-        Thread current = Thread.currentThread();
-        if (current != null && !"JavaFX Application Thread".equals(current.getName())) {
-            current.interrupt();
-        }
+        stopBehaviour();
         ImageView node = getSprite();
-        if (node != null) {
-            Platform.runLater(() -> {
+        if (node != null && root != null) {
+            world.post(() -> {
                 node.setVisible(false);
                 root.getChildren().remove(node);
                 System.out.println("Plant disappears.");
@@ -87,6 +85,42 @@ public abstract class Plant extends Characters implements Runnable {
         }
     }
 
+    /** Called once per simulation tick; drives the behaviour countdown. */
+    public void tick() {
+        if (ticksUntilAction < 0 || --ticksUntilAction > 0) {
+            return;
+        }
+        ticksUntilAction = repeatsAction() ? toTicks(getActionIntervalMillis()) : -1;
+        run();
+    }
+
+    /** Milliseconds between activations, or 0 for plants with no periodic behaviour. */
+    protected long getActionIntervalMillis() {
+        return 0;
+    }
+
+    /** Whether {@link #run()} fires every interval, or just once after the first one (e.g. a fuse). */
+    protected boolean repeatsAction() {
+        return true;
+    }
+
+    /** Start this plant's behaviour countdown; called once it is placed. */
+    public void startBehaviour() {
+        long interval = getActionIntervalMillis();
+        if (interval > 0) {
+            ticksUntilAction = toTicks(interval);
+        }
+    }
+
+    public void stopBehaviour() {
+        ticksUntilAction = -1;
+    }
+
+    /** One activation of the plant's behaviour, run on the simulation thread from {@link #tick()}. */
     @Override
     public abstract void run();
+
+    private static int toTicks(long millis) {
+        return (int) Math.max(1, Math.round(millis * GameLoop.TICKS_PER_SECOND / 1000.0));
+    }
 }
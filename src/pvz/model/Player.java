@@ -31,6 +31,9 @@ public class Player implements Serializable {
     /** Check if the provided password equals the stored one (demo only). */
     public boolean passwordMatches(String pw) { return Objects.equals(this.password, pw); }
 
+    /** Stored password, so the store can write the account back to disk (demo only). */
+    String getPassword() { return password; }
+
     /** Update the password (no validation/hashing in this demo). */
     public void setPassword(String pw) { this.password = pw; }
 }
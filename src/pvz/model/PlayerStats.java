@@ -0,0 +1,328 @@
+package pvz.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Per-player progress: games won and lost, zombies killed and sun collected, for each of the
+ * five levels. {@link Yard} records each finished game and the menu shows the totals.
+ *
+ * Counters are kept column by column: one int array per statistic, indexed by
+ * {@code slot * LEVELS + (level - 1)}, where a player's slot comes from a name lookup. The file,
+ * data/stats.bin, has the same layout (header, the name column, then each counter column as a
+ * block of ints, then a CRC32), so loading is a bulk copy per column rather than reading one
+ * object per player. Per-player totals, per-level totals over all players and the top
+ * {@link #LEADERBOARD_SIZE} players are kept up to date as games are recorded, so every query
+ * the menu makes costs the same however many players there are.
+ *
+ * Writes are write-behind on a daemon thread, through a temp file and an atomic rename; call
+ * {@link #save()} before exiting.
+ */
+public final class PlayerStats {
+    public static final int LEVELS = 5;
+    public static final int LEADERBOARD_SIZE = 10;
+
+    // Counter columns
+    public static final int WINS = 0, LOSSES = 1, KILLS = 2, SUN = 3;
+    private static final int COLUMNS = 4;
+
+    private static final Path FILE = Path.of("data", "stats.bin");
+    private static final int MAGIC = 0x50565A53; // "PVZS"
+    private static final int VERSION = 1;
+    private static final long SAVE_DELAY_MS = 500;
+
+    /** One row of the leaderboard. */
+    public record Entry(String username, int wins, int kills) { }
+
+    private static final ScheduledThreadPoolExecutor writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "player-stats-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static PlayerStats instance;
+
+    private final HashMap<String, Integer> slots = new HashMap<>();
+    private final ArrayList<String> names = new ArrayList<>();
+    private int[][] columns = new int[COLUMNS][16 * LEVELS];
+    private int[][] playerTotals = new int[COLUMNS][16];
+    private final long[][] levelTotals = new long[COLUMNS][LEVELS];
+    // Slots of the best players, best first (wins, then kills)
+    private final int[] top = new int[LEADERBOARD_SIZE];
+    private int topCount;
+    private boolean saveScheduled;
+
+    private PlayerStats() { }
+
+    /** The store for this process, loaded from disk on first use. */
+    public static synchronized PlayerStats get() {
+        if (instance == null) {
+            instance = new PlayerStats();
+            instance.load();
+        }
+        return instance;
+    }
+
+    /** Add one finished game to {@code username}'s counters; levels outside 1-5 aren't tracked. */
+    public synchronized void recordGame(String username, int level, boolean won, int zombiesKilled, int sunCollected) {
+        if (username == null || username.isBlank() || level < 1 || level > LEVELS) return;
+        int slot = slotFor(username);
+        add(slot, level, won ? WINS : LOSSES, 1);
+        add(slot, level, KILLS, zombiesKilled);
+        add(slot, level, SUN, sunCollected);
+        updateLeaderboard(slot);
+        scheduleSave();
+    }
+
+    /** One counter for one player and level (0 for players with no games). */
+    public synchronized int get(String username, int level, int column) {
+        Integer slot = slots.get(username);
+        return slot == null ? 0 : columns[column][slot * LEVELS + level - 1];
+    }
+
+    /** One counter summed over a player's levels. */
+    public synchronized int total(String username, int column) {
+        Integer slot = slots.get(username);
+        return slot == null ? 0 : playerTotals[column][slot];
+    }
+
+    /** One counter summed over all players for a level. */
+    public synchronized long levelTotal(int level, int column) {
+        return levelTotals[column][level - 1];
+    }
+
+    public synchronized int playerCount() {
+        return names.size();
+    }
+
+    /** Position on the leaderboard, from 1, or 0 if the player isn't on it. */
+    public synchronized int rank(String username) {
+        Integer slot = slots.get(username);
+        if (slot == null) return 0;
+        for (int i = 0; i < topCount; i++) {
+            if (top[i] == slot) return i + 1;
+        }
+        return 0;
+    }
+
+    /** The best players, best first. */
+    public synchronized List<Entry> leaderboard() {
+        List<Entry> entries = new ArrayList<>(topCount);
+        for (int i = 0; i < topCount; i++) {
+            int slot = top[i];
+            entries.add(new Entry(names.get(slot), playerTotals[WINS][slot], playerTotals[KILLS][slot]));
+        }
+        return entries;
+    }
+
+    /** Drop a player's counters, e.g. when the account is deleted. */
+    public synchronized void removePlayer(String username) {
+        Integer removed = slots.remove(username);
+        if (removed == null) return;
+        int slot = removed;
+        for (int c = 0; c < COLUMNS; c++) {
+            for (int l = 0; l < LEVELS; l++) {
+                levelTotals[c][l] -= columns[c][slot * LEVELS + l];
+            }
+        }
+        // Move the last player into the gap so the columns stay dense
+        int last = names.size() - 1;
+        if (slot != last) {
+            String moved = names.get(last);
+            names.set(slot, moved);
+            slots.put(moved, slot);
+            for (int c = 0; c < COLUMNS; c++) {
+                System.arraycopy(columns[c], last * LEVELS, columns[c], slot * LEVELS, LEVELS);
+                playerTotals[c][slot] = playerTotals[c][last];
+            }
+        }
+        names.remove(last);
+        for (int c = 0; c < COLUMNS; c++) {
+            Arrays.fill(columns[c], last * LEVELS, last * LEVELS + LEVELS, 0);
+            playerTotals[c][last] = 0;
+        }
+        rebuildLeaderboard();
+        scheduleSave();
+    }
+
+    /** Write pending changes now and wait for them; call on exit. */
+    public static void save() {
+        PlayerStats stats;
+        synchronized (PlayerStats.class) {
+            stats = instance;
+        }
+        if (stats == null) return;
+        try {
+            writer.submit(stats::writeFile).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.out.println("Could not save player stats: " + e);
+        }
+    }
+
+    private int slotFor(String username) {
+        Integer slot = slots.get(username);
+        if (slot != null) return slot;
+        int next = names.size();
+        if (next == playerTotals[0].length) {
+            for (int c = 0; c < COLUMNS; c++) {
+                columns[c] = Arrays.copyOf(columns[c], next * 2 * LEVELS);
+                playerTotals[c] = Arrays.copyOf(playerTotals[c], next * 2);
+            }
+        }
+        names.add(username);
+        slots.put(username, next);
+        return next;
+    }
+
+    private void add(int slot, int level, int column, int amount) {
+        columns[column][slot * LEVELS + level - 1] += amount;
+        playerTotals[column][slot] += amount;
+        levelTotals[column][level - 1] += amount;
+    }
+
+    private boolean ranksAbove(int a, int b) {
+        int wins = Integer.compare(playerTotals[WINS][a], playerTotals[WINS][b]);
+        return wins != 0 ? wins > 0 : playerTotals[KILLS][a] > playerTotals[KILLS][b];
+    }
+
+    // Counters only grow between removals, so a player can only climb: insert or move them up.
+    private void updateLeaderboard(int slot) {
+        int at = -1;
+        for (int i = 0; i < topCount; i++) {
+            if (top[i] == slot) at = i;
+        }
+        if (at < 0) {
+            if (topCount < LEADERBOARD_SIZE) {
+                at = topCount++;
+            } else if (ranksAbove(slot, top[topCount - 1])) {
+                at = topCount - 1;
+            } else {
+                return;
+            }
+            top[at] = slot;
+        }
+        while (at > 0 && ranksAbove(slot, top[at - 1])) {
+            top[at] = top[at - 1];
+            top[--at] = slot;
+        }
+    }
+
+    private void rebuildLeaderboard() {
+        topCount = 0;
+        for (int slot = 0; slot < names.size(); slot++) {
+            updateLeaderboard(slot);
+        }
+    }
+
+    private void scheduleSave() {
+        if (saveScheduled) return;
+        saveScheduled = true;
+        writer.schedule(this::writeFile, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Writer thread: snapshot the columns and replace the file with them. */
+    private void writeFile() {
+        byte[] bytes;
+        synchronized (this) {
+            if (!saveScheduled) return;
+            saveScheduled = false;
+            bytes = encode();
+        }
+        try {
+            Files.createDirectories(FILE.getParent());
+            AtomicFiles.write(FILE, bytes);
+        } catch (IOException e) {
+            System.out.println("Could not save " + FILE + ": " + e.getMessage());
+        }
+    }
+
+    private byte[] encode() {
+        int players = names.size();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + players * (16 + COLUMNS * LEVELS * 4));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(players);
+            out.writeInt(LEVELS);
+            out.writeInt(COLUMNS);
+            for (String name : names) {
+                byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(utf8.length);
+                out.write(utf8);
+            }
+            ByteBuffer column = ByteBuffer.allocate(players * LEVELS * 4);
+            for (int c = 0; c < COLUMNS; c++) {
+                column.clear();
+                column.asIntBuffer().put(columns[c], 0, players * LEVELS);
+                out.write(column.array(), 0, column.capacity());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    private void load() {
+        if (!Files.exists(FILE)) return;
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(FILE));
+            CRC32 crc = new CRC32();
+            crc.update(in.array(), 0, in.limit() - 4);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION
+                    || in.getInt(in.limit() - 4) != (int) crc.getValue()) {
+                System.out.println("Ignoring unreadable " + FILE);
+                return;
+            }
+            int players = in.getInt();
+            if (in.getInt() != LEVELS || in.getInt() != COLUMNS) {
+                System.out.println("Ignoring " + FILE + " written for a different set of levels");
+                return;
+            }
+            for (int slot = 0; slot < players; slot++) {
+                byte[] utf8 = new byte[in.getShort() & 0xffff];
+                in.get(utf8);
+                String name = new String(utf8, StandardCharsets.UTF_8);
+                names.add(name);
+                slots.put(name, slot);
+            }
+            int capacity = Math.max(16, players);
+            for (int c = 0; c < COLUMNS; c++) {
+                columns[c] = new int[capacity * LEVELS];
+                playerTotals[c] = new int[capacity];
+                in.asIntBuffer().get(columns[c], 0, players * LEVELS);
+                in.position(in.position() + players * LEVELS * 4);
+                for (int i = 0; i < players * LEVELS; i++) {
+                    playerTotals[c][i / LEVELS] += columns[c][i];
+                    levelTotals[c][i % LEVELS] += columns[c][i];
+                }
+            }
+            rebuildLeaderboard();
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            System.out.println("Could not read " + FILE + ": " + e);
+            slots.clear();
+            names.clear();
+            columns = new int[COLUMNS][16 * LEVELS];
+            playerTotals = new int[COLUMNS][16];
+            for (long[] totals : levelTotals) Arrays.fill(totals, 0);
+            topCount = 0;
+        }
+    }
+}
@@ -1,38 +1,113 @@
 package pvz.model;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
 
 /**
  * Simple file-backed user store.
  *
- * Storage format (binary serialized):
- * - data/users.bin    -> serialized HashMap of users and passwords
+ * Storage format:
+ * - data/users.log    -> append-only log of account records (see below)
+ * - data/users.idx    -> memory-mapped hash index over the log (see {@link UserIndex})
  * - data/session.bin  -> serialized username string of the signed-in user
  *
+ * The log starts with a magic number and version, followed by one record per change: a PUT
+ * (op, username, password) when an account is created, or a DELETE (op, username) when it is
+ * removed. Replaying the log in order gives the current accounts. Accounts are not kept in
+ * memory: the index maps each username to the offset of its PUT, so sign-in is a probe of the
+ * mapped index plus one read from the log. The index remembers how much of the log it covers, so
+ * startup only replays records appended after that; an index that is missing, from another
+ * version or fails its checksum is rebuilt from the whole log. The log assumes one running
+ * instance writes it at a time.
+ *
+ * Writes are write-behind: callers (the FX thread, from the auth dialogs) only queue the change
+ * and see it at once through {@link #pending}. A single writer thread appends everything queued
+ * within {@link #FLUSH_DELAY_MS} as one batch with one fsync, then points the index at it; a
+ * create and delete of the same account inside one batch cancel out, and only the latest session
+ * change is written. Files that are rewritten whole (session.bin, a compacted log) go to a temp
+ * file that is fsynced and then renamed over the old one, so a crash leaves the old or the new
+ * version, never half of one. Once overwritten and deleted records outnumber live ones, the
+ * writer compacts the log that way and re-indexes it. Call {@link #save()} before exiting.
+ *
+ * The old data/users.bin (two serialized maps) is imported once when no log exists yet.
+ *
  * Notes
- * - This uses binary serialization for compact storage.
  * - Don't store real passwords like this in production. Use hashing + salting and proper
  *   credential storage instead.
  */
 public class PlayerStore {
     // Where we keep the binary files for this demo (relative to app working dir)
     private static final Path DATA_DIR = Path.of("data");
-    private static final Path USERS_FILE = DATA_DIR.resolve("users.bin");
+    private static final Path LOG_FILE = DATA_DIR.resolve("users.log");
+    private static final Path INDEX_FILE = DATA_DIR.resolve("users.idx");
+    private static final Path LEGACY_USERS_FILE = DATA_DIR.resolve("users.bin");
     private static final Path SESSION_FILE = DATA_DIR.resolve("session.bin");
 
-    /** All registered users for this run (keyed by username). */
-    private final Map<String, Player> users = new HashMap<>();
+    private static final int MAGIC = 0x50565A55; // "PVZU"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    // Don't bother compacting small logs
+    private static final int MIN_DEAD_RECORDS_TO_COMPACT = 256;
+    /** Longest a queued change waits before the writer puts it on disk. */
+    private static final long FLUSH_DELAY_MS = 50;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    /** One queued log record (password is null for a DELETE). */
+    private record PendingRecord(byte op, String username, String password) { }
+
+    private final ScheduledThreadPoolExecutor writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "player-store-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Username -> log offset of the account's PUT; opened by {@link #refresh()}, null if that failed. */
+    private UserIndex index;
+    /** Read handle on the log for index lookups (null until needed, reset when the log is replaced). */
+    private FileChannel logReader;
     /** The user who most recently signed in (null if none). */
     private Player current;
 
+    /** Records waiting for the writer, oldest first. */
+    private final List<PendingRecord> queue = new ArrayList<>();
+    /** Accounts changed by queued or in-flight records; a null value means deleted. */
+    private final Map<String, Player> pending = new HashMap<>();
+    /** Accounts created minus accounts deleted that the index doesn't reflect yet. */
+    private int pendingSizeDelta;
+    private boolean sessionQueued;
+    private String queuedSession;
+    private boolean flushScheduled;
+    /** True while the writer is appending a batch the index doesn't cover yet. */
+    private boolean flushing;
+
     /** Ensure the data directory exists. */
     private static void ensureDataDir() {
         try { Files.createDirectories(DATA_DIR); } catch (IOException ignored) { }
@@ -40,33 +115,20 @@ public class PlayerStore {
 
     public synchronized boolean createAccount(String username, String password) {
         if (username == null || username.isBlank()) return false;
-        // Load from disk if needed so duplicate checks are accurate
-        load();
-        if (users.containsKey(username)) return false; // duplicate
+        // Catch up with the log first so duplicate checks are accurate
+        refresh();
+        if (index == null || findPlayer(username) != null) return false; // duplicate
 
-        Player p = new Player(username, password);
-        users.put(username, p);
-        passwords.put(username, password);
-
-        // Save updated users to binary file
-        ensureDataDir();
-        try {
-            saveToBinary();
-        } catch (IOException e) {
-            // If we can't persist, roll back the in-memory add for consistency
-            users.remove(username);
-            passwords.remove(username);
-            return false;
-        }
+        queueRecord(new PendingRecord(OP_PUT, username, password));
         return true;
     }
 
     public synchronized boolean signIn(String username, String password) {
-        load();
-        Player p = users.get(username);
+        refresh();
+        Player p = findPlayer(username);
         if (p != null && p.passwordMatches(password)) {
             current = p;
-            writeSession(username);
+            queueSession(username);
             return true;
         }
         return false;
@@ -76,31 +138,19 @@ public class PlayerStore {
     public synchronized Optional<Player> getCurrentPlayer() { return Optional.ofNullable(current); }
 
     /**
-     * Sign out the current user; clears session.txt if present.
+     * Sign out the current user; clears session.bin if present.
      */
     public synchronized void signOut() {
         current = null;
-        try { Files.deleteIfExists(SESSION_FILE); } catch (IOException ignored) { }
+        queueSession(null);
     }
-    
+
     public synchronized boolean deleteAccount(String username, String password) {
-        load();
-        Player p = users.get(username);
+        refresh();
+        Player p = findPlayer(username);
         if (p == null || !p.passwordMatches(password)) return false;
 
-        // Remove from memory
-        users.remove(username);
-        passwords.remove(username);
-
-        // Rewrite users binary file without this user
-        ensureDataDir();
-        try {
-            saveToBinary();
-        } catch (IOException e) {
-            // If rewrite fails, reload from disk to avoid diverging state
-            reloadFromDisk();
-            return false;
-        }
+        queueRecord(new PendingRecord(OP_DELETE, username, null));
 
         // If that user was logged in, sign them out
         if (current != null && username.equals(current.getUsername())) {
@@ -109,70 +159,410 @@ public class PlayerStore {
         return true;
     }
 
-    // -------- Persistence helpers (tiny and explicit for readability) --------
+    /** @return number of registered accounts. */
+    public synchronized int size() { return index == null ? 0 : index.size() + pendingSizeDelta; }
 
-    /** Load users and session from disk into memory (idempotent and cheap). */
-    public synchronized void load() { reloadFromDisk(); }
+    // -------- Persistence helpers (tiny and explicit for readability) --------
 
-    /** Save all users back to users.bin and current session (if any). */
-    public synchronized void save() {
-        ensureDataDir();
-        try {
-            saveToBinary();
-        } catch (IOException ignored) { }
-        if (current != null) writeSession(current.getUsername());
-    }
-
-    /** Read users.bin and session.bin freshly. */
-    private void reloadFromDisk() {
-        users.clear();
-        passwords.clear();
-        // Users
-        if (Files.exists(USERS_FILE)) {
-            try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(USERS_FILE))) {
-                @SuppressWarnings("unchecked")
-                Map<String, Player> loadedUsers = (Map<String, Player>) ois.readObject();
-                @SuppressWarnings("unchecked")
-                Map<String, String> loadedPasswords = (Map<String, String>) ois.readObject();
-                users.putAll(loadedUsers);
-                passwords.putAll(loadedPasswords);
-            } catch (IOException | ClassNotFoundException ignored) { }
-        }
-        // Session
+    /** Catch up with the log and restore the saved session. */
+    public synchronized void load() {
+        refresh();
         current = null;
         if (Files.exists(SESSION_FILE)) {
             try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(SESSION_FILE))) {
                 String u = (String) ois.readObject();
-                Player p = users.get(u);
-                if (p != null) current = p; // only set if user still exists
+                current = findPlayer(u); // only set if user still exists
             } catch (IOException | ClassNotFoundException ignored) { }
         }
     }
 
-    /** Write session.bin containing just the username. */
-    private void writeSession(String username) {
+    /** Write everything queued so far and wait for it; call on exit. Blocks, so keep it off the hot paths. */
+    public void save() {
+        try {
+            writer.submit(this::writeQueued).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Could not save users: " + e.getCause());
+        }
+    }
+
+    private void queueRecord(PendingRecord record) {
+        String username = record.username();
+        if (record.op() == OP_DELETE
+                && queue.removeIf(r -> r.op() == OP_PUT && r.username().equals(username))) {
+            // Created since the last flush: neither record needs to reach the log
+            pendingSizeDelta--;
+            pending.put(username, null);
+            return;
+        }
+        queue.add(record);
+        pending.put(username, record.op() == OP_PUT ? new Player(username, record.password()) : null);
+        pendingSizeDelta += record.op() == OP_PUT ? 1 : -1;
+        scheduleFlush(FLUSH_DELAY_MS);
+    }
+
+    private void queueSession(String username) {
+        sessionQueued = true;
+        queuedSession = username;
+        scheduleFlush(FLUSH_DELAY_MS);
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        writer.schedule(this::writeQueued, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Writer thread: append the queued records as one batch, index them, then write the session file. */
+    private void writeQueued() {
+        List<PendingRecord> batch;
+        boolean writeSession;
+        String session;
+        long at;
+        synchronized (this) {
+            flushScheduled = false;
+            batch = new ArrayList<>(queue);
+            queue.clear();
+            writeSession = sessionQueued;
+            session = queuedSession;
+            sessionQueued = false;
+            at = index == null ? 0 : index.getLogLength();
+            flushing = !batch.isEmpty();
+        }
+        if (!batch.isEmpty()) {
+            long[] offsets = new long[batch.size()];
+            try {
+                long end = appendBatch(batch, at, offsets);
+                synchronized (this) {
+                    // The log is the source of truth: only once the batch is durable does the index point at it
+                    for (int i = 0; i < offsets.length; i++) {
+                        PendingRecord r = batch.get(i);
+                        applyRecord(r.op(), r.username(), offsets[i]);
+                        pendingSizeDelta -= r.op() == OP_PUT ? 1 : -1;
+                    }
+                    index.setLogLength(end);
+                    index.force();
+                    flushing = false;
+                    Set<String> stillQueued = new HashSet<>();
+                    for (PendingRecord r : queue) stillQueued.add(r.username());
+                    pending.keySet().retainAll(stillQueued);
+                }
+                compactIfWorthwhile();
+            } catch (IOException e) {
+                System.out.println("Could not write " + LOG_FILE + ", will retry: " + e.getMessage());
+                synchronized (this) {
+                    flushing = false;
+                    queue.addAll(0, batch);
+                    scheduleFlush(RETRY_DELAY_MS);
+                }
+            }
+        }
+        if (writeSession) {
+            writeSessionFile(session);
+        }
+    }
+
+    /** Open the index and replay records it hasn't seen; starts over if the log was replaced or is new. */
+    private void refresh() {
         ensureDataDir();
-        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(SESSION_FILE,
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
-            oos.writeObject(username);
-        } catch (IOException ignored) { }
+        try {
+            if (index == null) {
+                index = UserIndex.open(INDEX_FILE);
+                if (index == null) {
+                    // Missing or unusable: an empty index covers nothing, so the whole log is replayed below
+                    index = UserIndex.create(INDEX_FILE, 0);
+                }
+            }
+            if (flushing) {
+                return; // the log is ahead of the index only by our own batch, which the writer indexes
+            }
+            if (!Files.exists(LOG_FILE)) {
+                if (index.getLogLength() > 0) index.clear();
+                importLegacyUsers();
+                return;
+            }
+            long size = Files.size(LOG_FILE);
+            if (size < index.getLogLength()) {
+                // Replaced on disk (e.g. restored from a backup): the offsets we know no longer mean anything
+                closeLogReader();
+                index.clear();
+            }
+            if (size > index.getLogLength()) {
+                replayFrom(index.getLogLength());
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read " + LOG_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private void replayFrom(long start) throws IOException {
+        try (FileChannel channel = FileChannel.open(LOG_FILE, StandardOpenOption.READ)) {
+            channel.position(start);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            long offset = start;
+            if (offset == 0) {
+                try {
+                    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                        throw new IOException("not a user log");
+                    }
+                } catch (EOFException torn) {
+                    return; // crashed before the header was complete; the next append rewrites it
+                }
+                offset = HEADER_BYTES;
+            }
+            CountingInput counter = new CountingInput(in);
+            while (true) {
+                counter.count = 0;
+                byte op;
+                String username;
+                try {
+                    op = counter.data.readByte();
+                    username = counter.data.readUTF();
+                    if (op == OP_PUT) {
+                        counter.data.readUTF(); // the password is read back from the log on lookup
+                    } else if (op != OP_DELETE) {
+                        throw new IOException("corrupt user log record");
+                    }
+                } catch (IOException torn) {
+                    break; // end of log, or a half-written last record from a crash; the next append overwrites it
+                }
+                applyRecord(op, username, offset);
+                offset += counter.count;
+                index.setLogLength(offset);
+            }
+            index.force();
+        }
     }
 
-    /** Save users and passwords maps to binary file. */
-    private void saveToBinary() throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(USERS_FILE,
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
-            oos.writeObject(users);
-            oos.writeObject(passwords);
+    /** Update the index for one record; {@code offset} is where the record starts in the log. */
+    private void applyRecord(byte op, String username, long offset) {
+        int dead = 0;
+        if (op == OP_PUT) {
+            if (index.put(username, offset, sameNameAt(username))) dead++;
+        } else {
+            // Both the account's PUT and the DELETE itself are now dead weight
+            if (index.remove(username, sameNameAt(username))) dead++;
+            dead++;
         }
+        if (dead > 0) index.setDeadRecords(index.getDeadRecords() + dead);
     }
 
     /**
-     * Demo helper: return the plain-text password we keep alongside the user
-     * so we can rewrite users.bin. (Never do this in a real app.)
+     * Writer thread: append a batch at {@code at}, the end of the indexed log (cutting off any torn
+     * tail first), with a single fsync. Fills in where each record starts and returns the new end.
      */
-    private String getPasswordFor(Player u) { return passwords.getOrDefault(u.getUsername(), ""); }
+    private static long appendBatch(List<PendingRecord> batch, long at, long[] offsets) throws IOException {
+        ensureDataDir();
+        boolean fresh = at < HEADER_BYTES;
+        if (fresh) at = 0;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * batch.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (fresh) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+        for (int i = 0; i < offsets.length; i++) {
+            PendingRecord r = batch.get(i);
+            offsets[i] = at + out.size();
+            out.writeByte(r.op());
+            out.writeUTF(r.username());
+            if (r.op() == OP_PUT) out.writeUTF(r.password());
+        }
+        out.flush();
 
-    // Mirror of plain-text passwords keyed by username for persistence only (demo).
-    private final Map<String, String> passwords = new HashMap<>();
-}
\ No newline at end of file
+        try (FileChannel channel = FileChannel.open(LOG_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(at);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, at + buffer.position());
+            }
+            channel.force(false);
+        }
+        return at + bytes.size();
+    }
+
+    /** Look a user up through the queued changes, then the index; null if there's no such account. */
+    private Player findPlayer(String username) {
+        if (index == null || username == null) return null;
+        if (pending.containsKey(username)) return pending.get(username);
+        Player[] found = new Player[1];
+        index.find(username, offset -> {
+            Player p = readPlayerAt(offset);
+            if (p == null || !p.getUsername().equals(username)) return false;
+            found[0] = p;
+            return true;
+        });
+        return found[0];
+    }
+
+    /** Index callback confirming a hash match really is {@code username}. */
+    private LongPredicate sameNameAt(String username) {
+        return offset -> {
+            Player p = readPlayerAt(offset);
+            return p != null && p.getUsername().equals(username);
+        };
+    }
+
+    /** Read the PUT record at {@code offset}; null if there isn't one there. */
+    private Player readPlayerAt(long offset) {
+        try {
+            if (logReader == null) {
+                logReader = FileChannel.open(LOG_FILE, StandardOpenOption.READ);
+            }
+            logReader.position(offset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(logReader), 256));
+            if (in.readByte() != OP_PUT) return null;
+            String username = in.readUTF();
+            String password = in.readUTF();
+            return new Player(username, password);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void closeLogReader() {
+        if (logReader == null) return;
+        try { logReader.close(); } catch (IOException ignored) { }
+        logReader = null;
+    }
+
+    /**
+     * Writer thread: rewrite the log without dead records once they outnumber live ones. The new
+     * file is written without holding the store's lock (only this thread appends to the log); just
+     * the swap and re-index hold it.
+     */
+    private void compactIfWorthwhile() {
+        List<Player> players;
+        synchronized (this) {
+            if (index == null) return;
+            int dead = index.getDeadRecords();
+            if (dead < MIN_DEAD_RECORDS_TO_COMPACT || dead < index.size()) return;
+            players = livePlayers();
+        }
+        try {
+            Path temp = AtomicFiles.tempFor(LOG_FILE);
+            long[] offsets = new long[players.size()];
+            long size = writeLogFile(temp, players, offsets);
+            synchronized (this) {
+                installLog(temp, players, offsets, size);
+            }
+        } catch (IOException e) {
+            System.out.println("User log compaction failed: " + e.getMessage());
+        }
+    }
+
+    /** Every indexed account, read in log order. */
+    private List<Player> livePlayers() {
+        long[] offsets = new long[index.size()];
+        int[] n = {0};
+        index.forEachOffset(offset -> offsets[n[0]++] = offset);
+        Arrays.sort(offsets, 0, n[0]);
+        List<Player> players = new ArrayList<>(n[0]);
+        for (int i = 0; i < n[0]; i++) {
+            Player p = readPlayerAt(offsets[i]);
+            if (p != null) players.add(p);
+        }
+        return players;
+    }
+
+    /** Write a complete log with one PUT per account to {@code file} and fsync it; returns its size. */
+    private static long writeLogFile(Path file, List<Player> players, long[] offsets) throws IOException {
+        ensureDataDir();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (int i = 0; i < offsets.length; i++) {
+                Player p = players.get(i);
+                offsets[i] = out.size();
+                out.writeByte(OP_PUT);
+                out.writeUTF(p.getUsername());
+                out.writeUTF(p.getPassword());
+            }
+            out.flush();
+            channel.force(true);
+            return out.size();
+        }
+    }
+
+    /** Rename a file written by {@link #writeLogFile} over the log, then re-index it. */
+    private void installLog(Path temp, List<Player> players, long[] offsets, long size) throws IOException {
+        closeLogReader();
+        AtomicFiles.moveIntoPlace(temp, LOG_FILE);
+        // clear() marks the index invalid until it is complete again, so a crash here means a rebuild
+        index.clear();
+        for (int i = 0; i < offsets.length; i++) {
+            // Names in a compacted log are unique, so a hash match is never the same account
+            index.put(players.get(i).getUsername(), offsets[i], offset -> false);
+        }
+        index.setLogLength(size);
+        index.force();
+    }
+
+    /** One-time import of the old users.bin (serialized user and password maps) into a new log. */
+    private void importLegacyUsers() throws IOException {
+        if (!Files.exists(LEGACY_USERS_FILE)) return;
+        List<Player> players = new ArrayList<>();
+        try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(LEGACY_USERS_FILE))) {
+            ois.readObject(); // users map; the passwords map below has everything we need
+            @SuppressWarnings("unchecked")
+            Map<String, String> loadedPasswords = (Map<String, String>) ois.readObject();
+            loadedPasswords.forEach((name, password) -> players.add(new Player(name, password)));
+        } catch (ClassNotFoundException | ClassCastException e) {
+            System.out.println("Skipping unreadable " + LEGACY_USERS_FILE + ": " + e.getMessage());
+            return;
+        }
+        Path temp = AtomicFiles.tempFor(LOG_FILE);
+        long[] offsets = new long[players.size()];
+        long size = writeLogFile(temp, players, offsets);
+        installLog(temp, players, offsets, size);
+        System.out.println("Imported " + players.size() + " accounts from " + LEGACY_USERS_FILE);
+    }
+
+    /** Writer thread: replace session.bin with just the username, or delete it when signed out. */
+    private static void writeSessionFile(String username) {
+        ensureDataDir();
+        try {
+            if (username == null) {
+                Files.deleteIfExists(SESSION_FILE);
+                return;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(username);
+            }
+            AtomicFiles.write(SESSION_FILE, bytes.toByteArray());
+        } catch (IOException e) {
+            System.out.println("Could not save session: " + e.getMessage());
+        }
+    }
+
+
+    /** Counts the bytes each record takes so the replay knows where the last complete one ends. */
+    private static final class CountingInput extends InputStream {
+        private final InputStream source;
+        private final DataInputStream data;
+        private long count;
+
+        CountingInput(InputStream source) {
+            this.source = source;
+            this.data = new DataInputStream(this);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = source.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = source.read(buffer, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
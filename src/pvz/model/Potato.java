@@ -3,45 +3,42 @@ package pvz.model;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 
-import pvz.util.AssetLoader;
-
 public class Potato extends Plant {
     public Potato() {
         super(50, 20, 300);
     }
 
-    public Potato(int posX, int posY) {
+    public Potato(World world, int posX, int posY) {
         this();
+        setWorld(world);
         super.x = posX;
         super.y = posY;
-        String spritePath = Yard.isPixelArtMode()
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartplants/PixelPotato.gif"
             : "images/plants/potato.gif";
-        ImageView sprite = new ImageView(AssetLoader.loadImage(spritePath));
-        sprite.setFitWidth(59);
-        sprite.setFitHeight(66);
-        sprite.setPreserveRatio(true);
-        sprite.setLayoutX((posX - sprite.getFitWidth() / 2));
-        sprite.setLayoutY((posY - sprite.getFitHeight() / 2) - 10);
+        ImageView sprite = loadSprite(spritePath, 59, 66);
+        setPosition(posX - 59 / 2.0, (posY - 66 / 2.0) - 10);
         setSprite(sprite);
     }
 
     @Override
     public void takeDamage(int amount) {
         super.takeDamage(amount);
+        if (sprite == null) {
+            return;
+        }
         double percent = (double) this.health / 300;
-        if (Yard.isPixelArtMode()) {
+        if (world.isPixelArt()) {
             if (percent <= 0.75) {
-                sprite.setImage(AssetLoader.loadImage("images/pixelart/pixelartplants/PixelPotatoCracked2.gif"));
+                showSprite("images/pixelart/pixelartplants/PixelPotatoCracked2.gif");
             }
         } else {
             if (percent <= 0.30) {
-                sprite.setImage(AssetLoader.loadImage("images/plants/potato-cracked2.gif"));
+                showSprite("images/plants/potato-cracked2.gif");
             } else if (percent <= 0.75) {
-                sprite.setImage(AssetLoader.loadImage("images/plants/potato-cracked1.gif"));
+                showSprite("images/plants/potato-cracked1.gif");
             }
         }
-        System.out.println("Potato damaged: " + amount + " HP left: " + this.health);
     }
 
     @Override
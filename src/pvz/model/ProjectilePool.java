@@ -0,0 +1,101 @@
+package pvz.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import javafx.scene.layout.Pane;
+
+/**
+ * Owns every pea on the lawn. Spent peas (and their ImageViews) go back to a free list instead of
+ * being rebuilt per shot, and {@link #update()} moves every live pea in one pass per tick.
+ *
+ * Only used from the simulation thread (the JavaFX thread on screen, where the GameLoop ticks and
+ * shooters fire from the tick; the caller's thread in a headless world), so no locking is needed.
+ */
+public class ProjectilePool {
+    private static final int MAX_POOLED = 256;
+
+    private final ArrayList<Pea> live = new ArrayList<>();
+    private final ArrayDeque<Pea> free = new ArrayDeque<>();
+    private final World world;
+
+    public ProjectilePool(World world) {
+        this.world = world;
+    }
+
+    /** Take a pea from the pool (or build one), place it at (x, y) and put it on the yard. */
+    public Pea fire(int damage, Plant parent, double x, double y) {
+        Pea pea = free.poll();
+        if (pea == null) {
+            pea = new Pea(world, damage, parent);
+        }
+        pea.setWorld(world);
+        pea.launch(damage, parent, x, y);
+        pea.appear(world.getRoot());
+        live.add(pea);
+        return pea;
+    }
+
+    /** Advance every live pea once and recycle the ones that finished this tick. */
+    public void update() {
+        int i = 0;
+        while (i < live.size()) {
+            Pea pea = live.get(i);
+            pea.tick();
+            if (pea.isSpent()) {
+                // swap-remove: order of peas doesn't matter
+                int last = live.size() - 1;
+                live.set(i, live.get(last));
+                live.remove(last);
+                release(pea);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /** Drop every live pea, e.g. when a level is reset. */
+    public void clear() {
+        for (Pea pea : live) {
+            pea.setAlive(false);
+            release(pea);
+        }
+        live.clear();
+    }
+
+    /** Copy every live pea's position onto its sprite; called once per frame. */
+    public void syncViews() {
+        for (int i = 0; i < live.size(); i++) {
+            live.get(i).syncView();
+        }
+    }
+
+    /** Call {@code action} with every pea in flight. */
+    void forEachLive(Consumer<Pea> action) {
+        for (int i = 0; i < live.size(); i++) {
+            action.accept(live.get(i));
+        }
+    }
+
+    public int getLiveCount() {
+        return live.size();
+    }
+
+    public int getPooledCount() {
+        return free.size();
+    }
+
+    private void release(Pea pea) {
+        var view = pea.getElementImage();
+        if (view != null) {
+            view.setVisible(false);
+            if (view.getParent() instanceof Pane parent) {
+                parent.getChildren().remove(view);
+            }
+        }
+        if (free.size() < MAX_POOLED) {
+            free.push(pea);
+        }
+    }
+}
@@ -1,128 +1,71 @@
 package pvz.model;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.scene.image.ImageView;
-import javafx.util.Duration;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-
-import pvz.util.AssetLoader;
 
 public class Repeater extends Plant {
+    // Second pea shortly after the first for the classic double-shot feel
+    private static final int FOLLOW_UP_TICKS = Math.round(0.25f * GameLoop.TICKS_PER_SECOND);
+
+    private int followUpTicks = -1;
+
     public Repeater() {
         super(200, 15, 120);
     }
 
-    public Repeater(int x, int y) {
+    public Repeater(World world, int x, int y) {
         this();
+        setWorld(world);
         this.x = x;
         this.y = y;
-        String spritePath = Yard.isPixelArtMode()
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartplants/PixelRepeater.gif"
             : "images/plants/repeater.gif";
-        ImageView sprite = new ImageView(AssetLoader.loadImage(spritePath));
-        sprite.setFitWidth(90);
-        sprite.setFitHeight(85);
-        sprite.setPreserveRatio(true);
-        sprite.setLayoutX((x - sprite.getFitWidth() / 2) + 5);
-        sprite.setLayoutY((y - sprite.getFitHeight() / 2) - 25);
+        ImageView sprite = loadSprite(spritePath, 90, 85);
+        setPosition((x - 90 / 2.0) + 5, (y - 85 / 2.0) - 25);
         setSprite(sprite);
     }
 
     @Override
-    public void run() {
-        while (isAlive() && !Thread.currentThread().isInterrupted()) {
-            try {
-                Thread.sleep(4000);
-                if (!isAlive() || Thread.currentThread().isInterrupted()) {
-                    break;
-                }
-
-                if (!hasZombieInLane()) {
-                    continue;
-                }
+    protected long getActionIntervalMillis() {
+        return 4000;
+    }
 
-                fireBurst();
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception ex) {
-                System.out.println("Repeater interrupted: " + ex.getMessage());
-            }
+    @Override
+    public void run() {
+        if (!isAlive() || !world.isGameOn() || !hasZombieInLane()) {
+            return;
         }
-
-        Platform.runLater(() -> disappear(Yard.root));
-        System.out.println("Repeater stopped.");
+        fireBurst();
     }
 
     private void fireBurst() {
-        Platform.runLater(() -> {
-            if (!isAlive()) {
-                return;
-            }
-            shootSinglePea();
+        shootSinglePea();
+        followUpTicks = FOLLOW_UP_TICKS;
+    }
 
-            // Second pea shortly after the first for the classic double-shot feel
-            Timeline followUp = new Timeline(new KeyFrame(Duration.millis(250), e -> shootSinglePea()));
-            followUp.play();
-        });
+    @Override
+    public void tick() {
+        super.tick();
+        // Counted on the simulation clock so the follow-up pea also works in a headless world
+        if (followUpTicks >= 0 && --followUpTicks < 0) {
+            shootSinglePea();
+        }
     }
 
     private void shootSinglePea() {
         if (!isAlive()) {
             return;
         }
-        Pea projectile = new Pea(15, this);
-        projectile.getElementImage().setLayoutX(getSprite().getLayoutX() + 65);
-        projectile.getElementImage().setLayoutY(getSprite().getLayoutY() + 31);
-        projectile.appear(Yard.root);
-        Yard.peas.add(projectile);
-        Thread projectileThread = new Thread(projectile);
-        projectileThread.setDaemon(true);
-        projectileThread.start();
+        world.getProjectiles().fire(15, this, posX + 65, posY + 31);
         playShootSound();
     }
 
     private boolean hasZombieInLane() {
-        ImageView sprite = getSprite();
-        if (sprite == null) {
-            return false;
-        }
-
-        double shooterY = sprite.getLayoutY();
-        double shooterX = sprite.getLayoutX();
-        final double laneTolerance = 45.0; // pixels
-
-        synchronized (Yard.zombies) {
-            for (Zombie zombie : Yard.zombies) {
-                if (zombie == null || !zombie.isAlive()) {
-                    continue;
-                }
-                ImageView zombieView = zombie.getElementImage();
-                if (zombieView == null) {
-                    continue;
-                }
-                double zombieY = zombieView.getLayoutY();
-                double zombieX = zombieView.getLayoutX();
-                if (Math.abs(zombieY - shooterY) <= laneTolerance && zombieX > shooterX) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        // getX() holds the grid row once the plant is placed
+        return world.getZombieLanes().anyAfter(getX(), posX);
     }
 
     private void playShootSound() {
-        try {
-            String audioPath = getClass().getResource("/pvz/music/peashooter-shoot.mp3").toExternalForm();
-            Media sound = new Media(audioPath);
-            MediaPlayer player = new MediaPlayer(sound);
-            player.setVolume(0.3);
-            player.play();
-        } catch (Exception ex) {
-            System.out.println("Audio error: " + ex.getMessage());
-        }
+        world.playSound("/pvz/music/peashooter-shoot.mp3", 0.3);
     }
 }
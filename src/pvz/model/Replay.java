@@ -0,0 +1,243 @@
+package pvz.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * One game's inputs: the level, the world's random seed, and every plant placed, plant shovelled
+ * and sun clicked, stamped with the world tick it happened on. Everything else in a game follows
+ * from those (see {@link World}), so {@link #play} re-runs the game in a {@link HeadlessSimulation}
+ * as fast as the CPU allows: to reproduce a bug, or as a fixed workload for performance checks.
+ *
+ * Events are appended to a byte array as they happen: the tick as a varint delta from the previous
+ * event, an opcode and one or two small operands, so a whole game is usually a few hundred bytes.
+ * The file adds a header and a CRC32. {@link Yard} records every new game and keeps the last one of
+ * each level in data/replays.
+ *
+ * Run {@code java pvz.model.Replay <file> [runs]} to replay a file and print the outcome and timing.
+ */
+public final class Replay {
+    private static final Path DIR = Path.of("data", "replays");
+    private static final int MAGIC = 0x50565A52; // "PVZR"
+    private static final int VERSION = 1;
+
+    // Event opcodes
+    private static final byte PLACE = 1, SHOVEL = 2, SUN = 3;
+    // Header flags
+    private static final int AUTO_SUN = 1;
+
+    private final int levelNumber;
+    private final long seed;
+    private final boolean autoCollectSun;
+    private byte[] events = new byte[256];
+    private int length;
+    private int eventCount;
+    private long lastTick;
+    // Ticks the recorded game lasted; set by finish()
+    private long totalTicks = Long.MAX_VALUE;
+
+    /**
+     * @param autoCollectSun true when the recorded game banked sun on its own (a headless one), so
+     *                       the replay does too; false when sun came only from recorded clicks
+     */
+    public Replay(int levelNumber, long seed, boolean autoCollectSun) {
+        this.levelNumber = levelNumber;
+        this.seed = seed;
+        this.autoCollectSun = autoCollectSun;
+    }
+
+    public int getLevelNumber() {
+        return levelNumber;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /** Mark the end of the recorded game, so a replay of a game that was quit stops there too. */
+    public void finish(long tick) {
+        totalTicks = tick;
+    }
+
+    /** A plant of {@code type} went into the cell; types outside the snapshot's table are skipped. */
+    public void recordPlace(long tick, Class<? extends Plant> type, int row, int col) {
+        int typeIndex = YardSnapshot.PLANT_TYPES.indexOf(type);
+        if (typeIndex < 0) {
+            return;
+        }
+        begin(tick, PLACE);
+        append(typeIndex);
+        append(row * Yard.COLUMNS + col);
+    }
+
+    public void recordShovel(long tick, int row, int col) {
+        begin(tick, SHOVEL);
+        append(row * Yard.COLUMNS + col);
+    }
+
+    public void recordSun(long tick, int amount) {
+        begin(tick, SUN);
+        appendVarint(amount);
+    }
+
+    /**
+     * Play the recorded game again without a window, applying each input before the tick it was
+     * recorded on, until it ends the way it did (or the recording stopped).
+     */
+    public HeadlessSimulation.Result play() {
+        HeadlessSimulation sim = new HeadlessSimulation(levelNumber, seed);
+        sim.setAutoCollectSun(autoCollectSun);
+        sim.setBot(new HeadlessSimulation.Bot() {
+            private final ByteBuffer in = ByteBuffer.wrap(events, 0, length);
+            private long nextTick = in.hasRemaining() ? readVarint(in) : Long.MAX_VALUE;
+
+            @Override
+            public void onTick(HeadlessSimulation s) {
+                while (nextTick == s.getTick()) {
+                    apply(s, in);
+                    nextTick = in.hasRemaining() ? nextTick + readVarint(in) : Long.MAX_VALUE;
+                }
+            }
+        });
+        return sim.run(totalTicks);
+    }
+
+    private static void apply(HeadlessSimulation sim, ByteBuffer in) {
+        byte op = in.get();
+        switch (op) {
+            case PLACE -> {
+                Class<? extends Plant> type = YardSnapshot.PLANT_TYPES.get(in.get());
+                int cell = in.get();
+                sim.placeRecorded(type, cell / Yard.COLUMNS, cell % Yard.COLUMNS);
+            }
+            case SHOVEL -> {
+                int cell = in.get();
+                sim.shovel(cell / Yard.COLUMNS, cell % Yard.COLUMNS);
+            }
+            case SUN -> sim.getWorld().collectSun((int) readVarint(in));
+            default -> throw new IllegalStateException("Unknown replay event " + op);
+        }
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(levelNumber);
+            out.writeLong(seed);
+            out.writeByte(autoCollectSun ? AUTO_SUN : 0);
+            out.writeLong(totalTicks);
+            out.writeInt(eventCount);
+            out.writeInt(length);
+            out.write(events, 0, length);
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Read a replay written by {@link #encode()}; returns null if it is damaged or from another version. */
+    public static Replay decode(byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length - 4);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION || in.getInt(data.length - 4) != (int) crc.getValue()) {
+                return null;
+            }
+            Replay replay = new Replay(in.get(), in.getLong(), (in.get() & AUTO_SUN) != 0);
+            replay.totalTicks = in.getLong();
+            replay.eventCount = in.getInt();
+            replay.length = in.getInt();
+            if (replay.length < 0 || replay.length > in.remaining() - 4) {
+                return null;
+            }
+            replay.events = Arrays.copyOfRange(data, in.position(), in.position() + replay.length);
+            return replay;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /** Keep this as the player's latest replay of its level. */
+    public void save(String username) throws IOException {
+        Path file = DIR.resolve(YardSnapshot.fileName(username, levelNumber));
+        Files.createDirectories(DIR);
+        AtomicFiles.write(file, encode());
+    }
+
+    public static Replay load(Path file) throws IOException {
+        return decode(Files.readAllBytes(file));
+    }
+
+    private void begin(long tick, byte op) {
+        appendVarint(tick - lastTick);
+        lastTick = tick;
+        append(op);
+        eventCount++;
+    }
+
+    private void append(int b) {
+        if (length == events.length) {
+            events = Arrays.copyOf(events, length * 2);
+        }
+        events[length++] = (byte) b;
+    }
+
+    // Unsigned LEB128: seven bits per byte, high bit set on all but the last
+    private void appendVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            append((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        append((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /** Replay a file and print the result and how long it took, e.g. to compare builds. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java pvz.model.Replay <replay file> [runs]");
+            return;
+        }
+        Replay replay = load(Path.of(args[0]));
+        if (replay == null) {
+            System.out.println("Not a readable replay: " + args[0]);
+            return;
+        }
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        System.out.println("Level " + replay.levelNumber + ", seed " + replay.seed + ", " + replay.eventCount + " inputs");
+        for (int run = 1; run <= runs; run++) {
+            long start = System.nanoTime();
+            HeadlessSimulation.Result result = replay.play();
+            long nanos = System.nanoTime() - start;
+            System.out.printf("Run %d: %s in %.1f ms (%.2f us/tick)%n", run, result, nanos / 1e6,
+                    nanos / 1e3 / Math.max(1, result.ticks()));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package pvz.model;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javafx.scene.media.AudioClip;
+
+/**
+ * Sound-effect mixer. Each effect is decoded once into a small bank of {@link AudioClip} voices;
+ * playing it takes a free voice, so at most {@link #MAX_VOICES} copies of one sound overlap. When
+ * every voice is busy the request is dropped, and so is any request landing within
+ * {@link #COALESCE_NANOS} of the last play of the same sound (ten peashooters firing on the same
+ * tick play one shot, not ten).
+ *
+ * Volume and mute come from {@link AudioSettings}. AudioClip is safe to use from any thread, so
+ * callers don't need to hop onto the FX thread to play a sound.
+ */
+public final class SoundEffects {
+    private static final int MAX_VOICES = 4;
+    private static final long COALESCE_NANOS = 40_000_000L;
+
+    private static final ConcurrentHashMap<String, Bank> banks = new ConcurrentHashMap<>();
+
+    private SoundEffects() {
+    }
+
+    /** Decode the effect ahead of time so its first play doesn't stall. */
+    public static void preload(String resourcePath) {
+        bank(resourcePath);
+    }
+
+    public static void play(String resourcePath, double volume) {
+        if (!AudioSettings.isEffectsEnabled()) {
+            return;
+        }
+        double level = volume * AudioSettings.getEffectsVolume();
+        if (level <= 0) {
+            return;
+        }
+        Bank bank = bank(resourcePath);
+        if (bank != null) {
+            bank.play(level);
+        }
+    }
+
+    /** Play one of several variants picked at random, e.g. the three zombie groans. */
+    public static void playAny(double volume, String... resourcePaths) {
+        play(resourcePaths[ThreadLocalRandom.current().nextInt(resourcePaths.length)], volume);
+    }
+
+    public static void stop(String resourcePath) {
+        Bank bank = banks.get(resourcePath);
+        if (bank != null) {
+            bank.stop();
+        }
+    }
+
+    public static void stopAll() {
+        for (Bank bank : banks.values()) {
+            bank.stop();
+        }
+    }
+
+    private static Bank bank(String resourcePath) {
+        Bank bank = banks.get(resourcePath);
+        if (bank != null) {
+            return bank.voices == null ? null : bank;
+        }
+        bank = banks.computeIfAbsent(resourcePath, Bank::load);
+        return bank.voices == null ? null : bank;
+    }
+
+    private static final class Bank {
+        private final AudioClip[] voices; // null when the resource is missing or failed to decode
+        private long lastPlayNanos;
+
+        private Bank(AudioClip[] voices) {
+            this.voices = voices;
+        }
+
+        static Bank load(String resourcePath) {
+            String source = resolve(resourcePath);
+            if (source == null) {
+                System.out.println("Sound missing: " + resourcePath);
+                return new Bank(null);
+            }
+            try {
+                AudioClip[] voices = new AudioClip[MAX_VOICES];
+                for (int i = 0; i < voices.length; i++) {
+                    voices[i] = new AudioClip(source);
+                }
+                return new Bank(voices);
+            } catch (Exception e) {
+                System.out.println("Error loading sound " + resourcePath + ": " + e.getMessage());
+                return new Bank(null);
+            }
+        }
+
+        /** Classpath first, then the src/ and bin/ folders when running from an IDE without resources. */
+        private static String resolve(String resourcePath) {
+            URL resource = SoundEffects.class.getResource(resourcePath);
+            if (resource != null) {
+                return resource.toExternalForm();
+            }
+            for (String root : new String[] {"src", "bin"}) {
+                Path fallback = Paths.get(root + resourcePath);
+                if (Files.exists(fallback)) {
+                    return fallback.toUri().toString();
+                }
+            }
+            return null;
+        }
+
+        synchronized void play(double volume) {
+            long now = System.nanoTime();
+            if (now - lastPlayNanos < COALESCE_NANOS) {
+                return;
+            }
+            for (AudioClip voice : voices) {
+                if (!voice.isPlaying()) {
+                    lastPlayNanos = now;
+                    voice.play(volume);
+                    return;
+                }
+            }
+            // every voice busy: drop this one
+        }
+
+        synchronized void stop() {
+            if (voices == null) {
+                return;
+            }
+            for (AudioClip voice : voices) {
+                voice.stop();
+            }
+        }
+    }
+}
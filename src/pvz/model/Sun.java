@@ -7,8 +7,6 @@ import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
 import javafx.util.Duration;
 
 import java.util.Random;
@@ -42,7 +40,7 @@ public class Sun extends MainElements
 	@Override
 	public void appear(Pane root)
 	{
-		Random random = new Random();
+		Random random = world.getRandom().cosmetic();
 
 		// sun spawning thread
 		Thread sunThread = new Thread(() ->
@@ -56,7 +54,12 @@ public class Sun extends MainElements
 
 					javafx.application.Platform.runLater(() ->
 					{
+						// No sun falls while the game is paused
+						if (world.isPaused())
+							return;
+
 						Sun sun = new Sun();
+						sun.setWorld(world);
 
 						// Set random position
 						double x = 227 + random.nextDouble() * 680; // horizontal range
@@ -114,9 +117,6 @@ public class Sun extends MainElements
 			// Mark the sun as collected
 			isCollected[0] = true;
 
-			// Play the sun collection sound
-			sunCollectedAudio();
-
 			// Collection animation
 			Timeline collectAnimation = new Timeline(
 					new KeyFrame(Duration.ZERO,
@@ -134,25 +134,11 @@ public class Sun extends MainElements
 			collectAnimation.setOnFinished(event2 -> root.getChildren().remove(elementImage)); // Remove after collection
 			collectAnimation.play();
 
-			// Increment the counter and update the label
-			Yard.sunCounter += 25;
-			Yard.label.setText(String.valueOf(Yard.sunCounter));
+			// Increment the counter; the world updates the yard's label and the yard plays the pickup sound
+			world.collectSun(25);
 		});
 	}
 
-	public void sunCollectedAudio() {
-		try {
-			String path = getClass().getResource("/pvz/music/sun pickup.mp3").toExternalForm();
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.3);
-
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing sun collecting sound: " + e.getMessage());
-		}
-	}
-
 	@Override
 	public void disappear(Pane root)
 	{
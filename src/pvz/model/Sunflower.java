@@ -10,8 +10,6 @@ import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
 import javafx.util.Duration;
 
-import pvz.util.AssetLoader;
-
 public class Sunflower extends Plant {
     private boolean sunReady = false;
 
@@ -19,30 +17,32 @@ public class Sunflower extends Plant {
         super(50, 25, 50);
     }
 
-    public Sunflower(int posX, int posY) {
+    public Sunflower(World world, int posX, int posY) {
         this();
+        setWorld(world);
         super.x = posX;
         super.y = posY;
-        String spritePath = Yard.isPixelArtMode()
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartplants/PixelSunFlower.gif"
             : "images/plants/sunflower.gif";
-        ImageView sprite = new ImageView(AssetLoader.loadImage(spritePath));
-        sprite.setFitWidth(73);
-        sprite.setFitHeight(70);
-        sprite.setPreserveRatio(true);
-        sprite.setLayoutX((posX - sprite.getFitWidth() / 2) + 5);
-        sprite.setLayoutY((posY - sprite.getFitHeight() / 2) - 15);
+        ImageView sprite = loadSprite(spritePath, 73, 70);
+        setPosition((posX - 73 / 2.0) + 5, (posY - 70 / 2.0) - 15);
         setSprite(sprite);
     }
 
+    // On screen the sun timeline below drives production; headless worlds tick it instead, unless a
+    // replay is feeding in the recorded sun clicks
     @Override
-    public void takeDamage(int amount) {
-        super.takeDamage(amount);
-        System.out.println("Sunflower damaged: " + amount + " HP left: " + this.health);
+    protected long getActionIntervalMillis() {
+        return world != null && world.isHeadless() && world.isAutoCollectSun() ? 10_000 : 0;
     }
 
+    /** Headless sun production: there is nobody to click the sun, so it is collected right away. */
     @Override
     public void run() {
+        if (isAlive() && world.isGameOn()) {
+            world.addSun(25);
+        }
     }
 
     public void startSunProduction(AnchorPane root) {
@@ -60,7 +60,7 @@ public class Sunflower extends Plant {
 
     private void createSun(AnchorPane root) {
         if (this.isAlive()) {
-            if (sunReady) return;
+            if (sunReady || world.isPaused()) return;
             sunReady = true;
             ColorAdjust adjust = new ColorAdjust();
             adjust.setBrightness(0.5);
@@ -88,9 +88,7 @@ public class Sunflower extends Plant {
             transition.setCycleCount(1);
             transition.setOnFinished(event -> {
                 sun.getElementImage().setOnMouseClicked(clickEvent -> {
-                    sun.sunCollectedAudio();
-                    Yard.sunCounter += 25;
-                    Yard.label.setText(String.valueOf(Yard.sunCounter));
+                    world.collectSun(25);
                     root.getChildren().remove(sun.getElementImage());
                     sunReady = false;
                 });
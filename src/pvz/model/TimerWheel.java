@@ -0,0 +1,118 @@
+package pvz.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A hashed timer wheel counting in simulation ticks, for timers that are set and reset far more
+ * often than they run out, such as status effects on zombies.
+ *
+ * Timers are small int ids chosen by the owner (say, a row and an effect kind), each with at most
+ * one deadline. The wheel has one bucket per tick for {@value #SLOTS} ticks, hashed by deadline;
+ * a timer is a node in its bucket's doubly linked list, kept in plain int arrays, so scheduling,
+ * rescheduling and cancelling are O(1) and allocate nothing. {@link #advance(long)} looks only at
+ * the buckets of the ticks that passed, and a timer more than {@value #SLOTS} ticks out is simply
+ * passed over until its own tick comes round.
+ *
+ * Simulation thread only.
+ */
+public final class TimerWheel {
+    static final int SLOTS = 256;
+    private static final int MASK = SLOTS - 1;
+    private static final int NONE = -1;
+
+    private final int[] heads = new int[SLOTS];
+    private int[] next;
+    private int[] prev;
+    private long[] deadlines;   // 0 while the timer isn't set
+    private final IntConsumer onExpired;
+    private long lastTick;
+
+    /** @param onExpired called with the id of each timer that runs out, after it has been unset */
+    public TimerWheel(int capacity, IntConsumer onExpired) {
+        this.onExpired = onExpired;
+        Arrays.fill(heads, NONE);
+        next = new int[capacity];
+        prev = new int[capacity];
+        deadlines = new long[capacity];
+    }
+
+    /** Make room for timer ids up to {@code capacity - 1}. */
+    public void ensureCapacity(int capacity) {
+        if (capacity > deadlines.length) {
+            int size = Math.max(capacity, deadlines.length * 2);
+            next = Arrays.copyOf(next, size);
+            prev = Arrays.copyOf(prev, size);
+            deadlines = Arrays.copyOf(deadlines, size);
+        }
+    }
+
+    /** Set the timer to run out at {@code tick} (a positive tick count), replacing any earlier deadline. */
+    public void schedule(int id, long tick) {
+        if (deadlines[id] != 0) {
+            unlink(id);
+        }
+        deadlines[id] = tick;
+        int slot = (int) (tick & MASK);
+        int head = heads[slot];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        heads[slot] = id;
+    }
+
+    /** Unset the timer without calling back; false if it wasn't set. */
+    public boolean cancel(int id) {
+        if (deadlines[id] == 0) {
+            return false;
+        }
+        unlink(id);
+        deadlines[id] = 0;
+        return true;
+    }
+
+    /** Tick the timer runs out at, or 0 if it isn't set. */
+    public long getDeadline(int id) {
+        return deadlines[id];
+    }
+
+    /** Run out every timer due by {@code tick}, in the buckets of the ticks since the last call. */
+    public void advance(long tick) {
+        long from = Math.max(lastTick + 1, tick - MASK);
+        lastTick = tick;
+        for (long t = from; t <= tick; t++) {
+            int id = heads[(int) (t & MASK)];
+            while (id != NONE) {
+                int following = next[id];
+                if (deadlines[id] <= tick) {
+                    unlink(id);
+                    deadlines[id] = 0;
+                    onExpired.accept(id);
+                }
+                id = following;
+            }
+        }
+    }
+
+    /** Unset every timer without calling back, ready to count from any tick again. */
+    public void clear() {
+        Arrays.fill(heads, NONE);
+        Arrays.fill(deadlines, 0);
+        lastTick = 0;
+    }
+
+    private void unlink(int id) {
+        int before = prev[id];
+        int after = next[id];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            heads[(int) (deadlines[id] & MASK)] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+    }
+}
@@ -2,26 +2,21 @@ package pvz.model;
 
 import javafx.scene.image.ImageView;
 
-import pvz.util.AssetLoader;
-
 public class TorchWood extends Plant {
     public TorchWood() {
         super(175, 30, 200);
     }
 
-    public TorchWood(int x, int y) {
+    public TorchWood(World world, int x, int y) {
         this();
+        setWorld(world);
         this.x = x;
         this.y = y;
-        String spritePath = Yard.isPixelArtMode()
+        String spritePath = world.isPixelArt()
             ? "images/pixelart/pixelartplants/PixelTorchWood.gif"
             : "images/plants/torchWood.gif";
-        ImageView sprite = new ImageView(AssetLoader.loadImage(spritePath));
-        sprite.setFitWidth(80);
-        sprite.setFitHeight(100);
-        sprite.setPreserveRatio(true);
-        sprite.setLayoutX(x - sprite.getFitWidth() / 2.0);
-        sprite.setLayoutY(y - sprite.getFitHeight());
+        ImageView sprite = loadSprite(spritePath, 80, 100);
+        setPosition(x - 80 / 2.0, y - 100);
         setSprite(sprite);
     }
 
@@ -0,0 +1,308 @@
+package pvz.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk hash index from username to the offset of that account's record in the user log,
+ * memory-mapped with {@link FileChannel#map} so a lookup is a few reads from the mapping.
+ *
+ * Layout: a 32-byte header (magic, version, slot count, entry count, dead record count, CRC32 of
+ * the other header fields, and how many log bytes the index covers), then a power-of-two number of
+ * 16-byte slots holding a 64-bit FNV-1a hash of the username and the record offset (0 = empty).
+ * Collisions are resolved by linear probing; deletes shift later entries back instead of leaving
+ * tombstones. Equal hashes are confirmed by the caller, who reads the name back from the log.
+ *
+ * The file is never truncated or renamed while mapped (Windows refuses both), so growing re-maps a
+ * larger region of the same file. While slots are being rewritten the header is marked invalid, so
+ * an index cut short by a crash fails {@link #open} and is rebuilt from the log.
+ */
+public final class UserIndex implements Closeable {
+    private static final int MAGIC = 0x50565A49; // "PVZI"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SLOT_BYTES = 16;
+    private static final int MIN_SLOTS = 1024;
+    private static final double MAX_LOAD = 0.6;
+
+    private final FileChannel channel;
+    private MappedByteBuffer map;
+    private int slotCount;
+    private int size;
+    private int deadRecords;
+    private long logLength;
+
+    private UserIndex(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Open an existing index, or return null if it is missing, from another version, fails its
+     * checksum or was left half-written; the caller then rebuilds it with {@link #create}.
+     */
+    public static UserIndex open(Path path) throws IOException {
+        if (!Files.exists(path)) return null;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Validate with a plain read first: a mapping of a bad file would pin it until GC
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) { }
+            if (header.hasRemaining() || !headerValid(header)) {
+                channel.close();
+                return null;
+            }
+            int slots = header.getInt(8);
+            if (channel.size() < HEADER_BYTES + (long) slots * SLOT_BYTES) {
+                channel.close();
+                return null;
+            }
+            UserIndex index = new UserIndex(channel);
+            index.slotCount = slots;
+            index.size = header.getInt(12);
+            index.deadRecords = header.getInt(16);
+            index.logLength = header.getLong(24);
+            index.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) slots * SLOT_BYTES);
+            return index;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Create an empty index (reusing the file if there is one) sized for about {@code expectedEntries}. */
+    public static UserIndex create(Path path, int expectedEntries) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        UserIndex index = new UserIndex(channel);
+        index.remap(slotsFor(expectedEntries));
+        index.writeHeader();
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Log records that no longer describe a live account (overwritten or deleted). */
+    public int getDeadRecords() {
+        return deadRecords;
+    }
+
+    public void setDeadRecords(int deadRecords) {
+        this.deadRecords = deadRecords;
+        writeHeader();
+    }
+
+    /** Bytes of the log already reflected in this index. */
+    public long getLogLength() {
+        return logLength;
+    }
+
+    public void setLogLength(long logLength) {
+        this.logLength = logLength;
+        writeHeader();
+    }
+
+    /**
+     * Offset of the record for {@code username}, or 0 if there is none. {@code sameName} is asked
+     * about each offset whose hash matches and should check the name stored there.
+     */
+    public long find(String username, LongPredicate sameName) {
+        long hash = hash(username);
+        int mask = slotCount - 1;
+        for (int i = home(hash); ; i = (i + 1) & mask) {
+            long offset = offsetAt(i);
+            if (offset == 0) return 0;
+            if (hashAt(i) == hash && sameName.test(offset)) return offset;
+        }
+    }
+
+    /** Point {@code username} at {@code offset}; returns true if it replaced an existing entry. */
+    public boolean put(String username, long offset, LongPredicate sameName) {
+        if (size + 1 > slotCount * MAX_LOAD) {
+            grow();
+        }
+        long hash = hash(username);
+        int mask = slotCount - 1;
+        for (int i = home(hash); ; i = (i + 1) & mask) {
+            long existing = offsetAt(i);
+            if (existing == 0) {
+                setSlot(i, hash, offset);
+                size++;
+                writeHeader();
+                return false;
+            }
+            if (hashAt(i) == hash && sameName.test(existing)) {
+                setSlot(i, hash, offset);
+                return true;
+            }
+        }
+    }
+
+    /** Drop {@code username}; returns false if it wasn't indexed. */
+    public boolean remove(String username, LongPredicate sameName) {
+        long hash = hash(username);
+        int mask = slotCount - 1;
+        int hole = home(hash);
+        while (true) {
+            long offset = offsetAt(hole);
+            if (offset == 0) return false;
+            if (hashAt(hole) == hash && sameName.test(offset)) break;
+            hole = (hole + 1) & mask;
+        }
+        // Shift back every following entry of the run that would no longer be reachable past the hole
+        for (int j = (hole + 1) & mask; offsetAt(j) != 0; j = (j + 1) & mask) {
+            int k = home(hashAt(j));
+            boolean staysPut = hole <= j ? (hole < k && k <= j) : (hole < k || k <= j);
+            if (!staysPut) {
+                setSlot(hole, hashAt(j), offsetAt(j));
+                hole = j;
+            }
+        }
+        setSlot(hole, 0, 0);
+        size--;
+        writeHeader();
+        return true;
+    }
+
+    /** Call {@code action} with the record offset of every indexed account, in slot order. */
+    public void forEachOffset(LongConsumer action) {
+        for (int i = 0; i < slotCount; i++) {
+            long offset = offsetAt(i);
+            if (offset != 0) action.accept(offset);
+        }
+    }
+
+    /** Forget every entry, keeping the current capacity. */
+    public void clear() {
+        markInvalid();
+        zeroSlots();
+        size = 0;
+        deadRecords = 0;
+        logLength = 0;
+        writeHeader();
+    }
+
+    /** Flush the mapped pages to disk. */
+    public void force() {
+        map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void grow() {
+        long[] hashes = new long[size];
+        long[] offsets = new long[size];
+        int n = 0;
+        for (int i = 0; i < slotCount; i++) {
+            if (offsetAt(i) != 0) {
+                hashes[n] = hashAt(i);
+                offsets[n++] = offsetAt(i);
+            }
+        }
+        markInvalid();
+        try {
+            remap(slotCount * 2);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not grow user index", e);
+        }
+        int mask = slotCount - 1;
+        for (int e = 0; e < n; e++) {
+            int i = home(hashes[e]);
+            while (offsetAt(i) != 0) i = (i + 1) & mask;
+            setSlot(i, hashes[e], offsets[e]);
+        }
+        writeHeader();
+    }
+
+    // Map a region for `slots` slots (extending the file if needed) and empty it.
+    private void remap(int slots) throws IOException {
+        slotCount = slots;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) slots * SLOT_BYTES);
+        zeroSlots();
+    }
+
+    private void zeroSlots() {
+        for (int i = 0; i < slotCount; i++) {
+            setSlot(i, 0, 0);
+        }
+    }
+
+    private void markInvalid() {
+        map.putInt(0, 0);
+    }
+
+    private void writeHeader() {
+        map.putInt(4, VERSION);
+        map.putInt(8, slotCount);
+        map.putInt(12, size);
+        map.putInt(16, deadRecords);
+        map.putLong(24, logLength);
+        map.putInt(20, checksum(map));
+        map.putInt(0, MAGIC);
+    }
+
+    private static boolean headerValid(ByteBuffer header) {
+        int slots = header.getInt(8);
+        return header.getInt(0) == MAGIC
+                && header.getInt(4) == VERSION
+                && slots >= MIN_SLOTS && Integer.bitCount(slots) == 1
+                && header.getInt(20) == checksum(header);
+    }
+
+    // CRC32 of the header without the magic (set last) and the checksum itself
+    private static int checksum(ByteBuffer header) {
+        CRC32 crc = new CRC32();
+        for (int i = 4; i < HEADER_BYTES; i++) {
+            if (i < 20 || i >= 24) crc.update(header.get(i));
+        }
+        return (int) crc.getValue();
+    }
+
+    private long hashAt(int slot) {
+        return map.getLong(HEADER_BYTES + slot * SLOT_BYTES);
+    }
+
+    private long offsetAt(int slot) {
+        return map.getLong(HEADER_BYTES + slot * SLOT_BYTES + 8);
+    }
+
+    private void setSlot(int slot, long hash, long offset) {
+        int at = HEADER_BYTES + slot * SLOT_BYTES;
+        map.putLong(at, hash);
+        map.putLong(at + 8, offset);
+    }
+
+    private int home(long hash) {
+        return (int) ((hash ^ (hash >>> 32)) & (slotCount - 1));
+    }
+
+    private static int slotsFor(int entries) {
+        int slots = MIN_SLOTS;
+        while (entries > slots * MAX_LOAD) slots *= 2;
+        return slots;
+    }
+
+    // FNV-1a over the UTF-8 bytes: stable across runs and JVMs, unlike identity-based hashes
+    private static long hash(String username) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
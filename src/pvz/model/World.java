@@ -0,0 +1,470 @@
+package pvz.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import javafx.application.Platform;
+import javafx.scene.layout.Pane;
+
+import pvz.util.SpriteAnimator;
+
+/**
+ * Simulation state for one game: the plant grid, the live zombies and plants with their lane
+ * indexes, the pea pool, the sun count and whether the game is still running.
+ *
+ * Each {@link Yard} owns one world and hands it to every entity it creates (see
+ * {@link MainElements#setWorld}), so entities never reach into shared statics and several games
+ * can run in the same process. Zombies and plants live in {@link EntityRegistry}s, which the tick
+ * changes and anything may read without locks; the zombies' positions, health and timers are kept
+ * in a {@link ZombieStore}, which the tick walks.
+ *
+ * {@link #step()} advances everything by one fixed tick using only the entities' model positions, so
+ * a headless world (no root pane, no sprites) can be stepped from any single thread as fast as the
+ * caller likes; see {@link HeadlessSimulation}.
+ *
+ * On screen, the simulation only touches the scene through {@link #post} and the entities' model
+ * positions. While the yard's render sync is on, posted changes are queued and applied together with
+ * the moved sprites' positions in {@link #syncScene()}, once per frame, instead of each one being a
+ * separate Platform.runLater.
+ *
+ * Everything that decides how a game plays runs on the tick and draws from the world's seeded
+ * {@link GameRandom}, so a seed and the recorded inputs replay a game exactly; see {@link Replay}.
+ * What merely reacts to the game (sounds, hit flashes, banners) subscribes to the world's
+ * {@link GameEvents} instead of being called from the combat code.
+ */
+public class World {
+    private final boolean headless;
+    // Which sprites this game's entities use; part of the gameplay, since sprites size the hitboxes
+    private boolean pixelArt;
+    private final Characters[][] grid = new Characters[Yard.ROWS][Yard.COLUMNS];
+    private final EntityRegistry<Zombie> zombies = new EntityRegistry<>();
+    private final EntityRegistry<Plant> plants = new EntityRegistry<>();
+    // The zombies' tick state, one primitive array per field
+    private final ZombieStore zombieStore = new ZombieStore(this);
+
+    // Per-row indexes sorted by x, so lane and collision queries don't scan the full lists
+    private final LaneIndex<Zombie> zombieLanes = new LaneIndex<>(Yard.ROWS, Zombie::getPosX);
+    private final LaneIndex<Plant> plantLanes = new LaneIndex<>(Yard.ROWS, Plant::getPosX);
+    private final ProjectilePool projectiles = new ProjectilePool(this);
+    private final LawnMower[] lawnMowers = new LawnMower[Yard.ROWS];
+    private final GameEvents events = new GameEvents(this);
+
+    private volatile long tickCount;
+
+    // Scene changes waiting for the next frame, posted from the tick
+    private final ConcurrentLinkedQueue<Runnable> sceneChanges = new ConcurrentLinkedQueue<>();
+    private volatile boolean renderSync;
+    // Posts handed to Platform.runLater that haven't run yet
+    private final AtomicInteger pendingRunLater = new AtomicInteger();
+
+    private volatile boolean gameOn = true;
+    private volatile boolean paused;
+    private GameRandom random = new GameRandom(GameRandom.newSeed());
+    // Player inputs of this game, or null when nothing is recording
+    private Replay inputLog;
+    // Headless worlds collect produced sun themselves; a replay takes it from the recorded clicks instead
+    private boolean autoCollectSun = true;
+    private volatile int sunCounter;
+    // This game's tallies for PlayerStats
+    private int zombiesKilled;
+    private int sunCollected;
+    private Pane root;
+    // Advances the sprites on the root with the tick count, so they freeze while the game is paused
+    private final SpriteAnimator animator = new SpriteAnimator();
+
+    private IntConsumer onSunChanged = count -> { };
+    private Runnable onGameOver = () -> { };
+
+    public World() {
+        this(false);
+    }
+
+    /** @param headless true for a world that is never drawn and whose deferred work runs inline */
+    public World(boolean headless) {
+        this.headless = headless;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /** Whether entities build sprites; a headless world's entities only get hitboxes. */
+    public boolean isSpritesEnabled() {
+        return !headless;
+    }
+
+    /** Whether this game uses the pixel-art sprites; entities read it in their constructors. */
+    public boolean isPixelArt() {
+        return pixelArt;
+    }
+
+    /** Choose the art style before any entity is built. */
+    public void setPixelArt(boolean pixelArt) {
+        this.pixelArt = pixelArt;
+    }
+
+    /** Play an entity's sound effect; a headless world stays silent. */
+    public void playSound(String resourcePath, double volume) {
+        if (!headless) {
+            SoundEffects.play(resourcePath, volume);
+        }
+    }
+
+    /**
+     * Run work that touches the scene: at the next frame's {@link #syncScene()} while render sync is
+     * on, otherwise later on the FX thread; right away on the simulation thread for a headless world.
+     */
+    public void post(Runnable task) {
+        if (headless) {
+            task.run();
+        } else if (renderSync) {
+            sceneChanges.add(task);
+        } else {
+            pendingRunLater.incrementAndGet();
+            Platform.runLater(() -> {
+                pendingRunLater.decrementAndGet();
+                task.run();
+            });
+        }
+    }
+
+    /** Posted scene changes and events still waiting for the FX thread, for the metrics overlay. */
+    public int getQueuedWork() {
+        return sceneChanges.size() + pendingRunLater.get() + events.getPending();
+    }
+
+    /** Live zombies, plants, peas and rolling mowers by type name, for the metrics overlay. */
+    public Map<String, Integer> countEntities() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Zombie zombie : zombies) {
+            counts.merge(zombie.getClass().getSimpleName(), 1, Integer::sum);
+        }
+        for (Plant plant : plants) {
+            counts.merge(plant.getClass().getSimpleName(), 1, Integer::sum);
+        }
+        counts.put("Pea", projectiles.getLiveCount());
+        int mowers = 0;
+        for (LawnMower mower : lawnMowers) {
+            if (mower != null && mower.isActive()) {
+                mowers++;
+            }
+        }
+        counts.put("LawnMower", mowers);
+        return counts;
+    }
+
+    /**
+     * Switch batching of posted scene changes on or off; called on the FX thread by whoever drives
+     * {@link #syncScene()} each frame. Turning it off applies whatever is still queued.
+     */
+    public void setRenderSync(boolean enabled) {
+        renderSync = enabled;
+        if (!enabled) {
+            syncScene();
+        }
+    }
+
+    /**
+     * Apply queued scene changes, dispatch this frame's events, copy moving entities' positions
+     * onto their sprites and show each animated sprite's frame for the current tick; FX thread only.
+     */
+    public void syncScene() {
+        Runnable change;
+        while ((change = sceneChanges.poll()) != null) {
+            change.run();
+        }
+        events.dispatch();
+        zombieStore.syncViews();
+        projectiles.syncViews();
+        for (LawnMower mower : lawnMowers) {
+            if (mower != null) {
+                mower.syncView();
+            }
+        }
+        animator.advance(tickCount * 1000 / GameLoop.TICKS_PER_SECOND);
+    }
+
+    /** Pane every entity of this world is drawn on; may be null for a headless world. */
+    public Pane getRoot() {
+        return root;
+    }
+
+    public void setRoot(Pane root) {
+        this.root = root;
+        if (root != null) {
+            animator.attachTo(root);
+        }
+    }
+
+    public Characters[][] getGrid() {
+        return grid;
+    }
+
+    /** Live zombies; iterate freely, change only through {@link #addZombie} and {@link #removeZombie}. */
+    public EntityRegistry<Zombie> getZombies() {
+        return zombies;
+    }
+
+    /** Live plants; iterate freely, change only through {@link #addPlant} and {@link #removePlant}. */
+    public EntityRegistry<Plant> getPlants() {
+        return plants;
+    }
+
+    public LaneIndex<Zombie> getZombieLanes() {
+        return zombieLanes;
+    }
+
+    public LaneIndex<Plant> getPlantLanes() {
+        return plantLanes;
+    }
+
+    public ProjectilePool getProjectiles() {
+        return projectiles;
+    }
+
+    /** This game's event bus. */
+    public GameEvents getEvents() {
+        return events;
+    }
+
+    public LawnMower getLawnMower(int row) {
+        return lawnMowers[row];
+    }
+
+    public void setLawnMower(int row, LawnMower mower) {
+        mower.setWorld(this);
+        lawnMowers[row] = mower;
+    }
+
+    /** Number of completed {@link #step()} calls. */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /** Carry on counting from a saved game's tick; see {@link YardSnapshot}. */
+    void restoreTickCount(long tickCount) {
+        this.tickCount = tickCount;
+    }
+
+    public boolean isGameOn() {
+        return gameOn;
+    }
+
+    public void setGameOn(boolean gameOn) {
+        this.gameOn = gameOn;
+    }
+
+    /** This game's seeded random numbers. */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    public void setRandom(GameRandom random) {
+        this.random = random;
+    }
+
+    /** Where this game's inputs are recorded, or null. */
+    public Replay getInputLog() {
+        return inputLog;
+    }
+
+    public void setInputLog(Replay inputLog) {
+        this.inputLog = inputLog;
+    }
+
+    /** Whether a headless world banks the sun its sunflowers make without anyone clicking it. */
+    public boolean isAutoCollectSun() {
+        return autoCollectSun;
+    }
+
+    public void setAutoCollectSun(boolean autoCollectSun) {
+        this.autoCollectSun = autoCollectSun;
+    }
+
+    /** True while the player has the game paused; timers outside the tick hold off until it resumes. */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public int getSunCounter() {
+        return sunCounter;
+    }
+
+    public void setSunCounter(int sunCounter) {
+        this.sunCounter = sunCounter;
+        onSunChanged.accept(sunCounter);
+    }
+
+    /** Add (or, with a negative amount, spend) sun and notify the listener. */
+    public void addSun(int amount) {
+        setSunCounter(sunCounter + amount);
+    }
+
+    /** Sun the player picked up by clicking it, as opposed to sun spent or granted. */
+    public void collectSun(int amount) {
+        if (inputLog != null) {
+            inputLog.recordSun(tickCount, amount);
+        }
+        sunCollected += amount;
+        addSun(amount);
+        events.publish(GameEvents.Type.SUN_COLLECTED, null, -1, amount);
+    }
+
+    public int getSunCollected() {
+        return sunCollected;
+    }
+
+    /** Count a zombie killed this game; called once per zombie, when its health runs out. */
+    public void countZombieKilled() {
+        zombiesKilled++;
+    }
+
+    public int getZombiesKilled() {
+        return zombiesKilled;
+    }
+
+    /** Pick the game's tallies up where a saved game left them. */
+    void restoreTallies(int zombiesKilled, int sunCollected) {
+        this.zombiesKilled = zombiesKilled;
+        this.sunCollected = sunCollected;
+    }
+
+    /** Called with the new count whenever the sun counter changes, e.g. to update a label. */
+    public void setOnSunChanged(IntConsumer onSunChanged) {
+        this.onSunChanged = onSunChanged != null ? onSunChanged : count -> { };
+    }
+
+    /** Called when a zombie gets past the lawn. */
+    public void setOnGameOver(Runnable onGameOver) {
+        this.onGameOver = onGameOver != null ? onGameOver : () -> { };
+    }
+
+    public void gameOver() {
+        onGameOver.run();
+    }
+
+    public void addZombie(Zombie zombie, int lane) {
+        zombie.setWorld(this);
+        zombies.add(zombie);
+        zombieStore.add(zombie);
+        zombieLanes.add(zombie, lane);
+    }
+
+    public void removeZombie(Zombie zombie) {
+        zombies.remove(zombie);
+        zombieStore.remove(zombie);
+        zombieLanes.remove(zombie);
+    }
+
+    /** Put the plant in the grid cell and the lane lists; the plant's x/y become its row/column. */
+    public void addPlant(Plant plant, int row, int col) {
+        plant.setWorld(this);
+        plant.setX(row);
+        plant.setY(col);
+        synchronized (grid) {
+            grid[row][col] = plant;
+        }
+        plants.add(plant);
+        plantLanes.add(plant, row);
+    }
+
+    public void removePlant(Plant plant) {
+        int row = plant.getX();
+        int col = plant.getY();
+        synchronized (grid) {
+            if (row >= 0 && row < Yard.ROWS && col >= 0 && col < Yard.COLUMNS && grid[row][col] == plant) {
+                grid[row][col] = null;
+            }
+        }
+        plants.remove(plant);
+        plantLanes.remove(plant);
+    }
+
+    /** One simulation step: zombies, peas, lawn mowers and plants all advance in a single pass. */
+    public void step() {
+        tickCount++;
+        zombieStore.step();
+        zombieLanes.refresh();
+
+        projectiles.update();
+
+        for (LawnMower mower : lawnMowers) {
+            if (mower != null) {
+                mower.tick();
+            }
+        }
+
+        for (Plant plant : plants) {
+            plant.tick();
+        }
+        // Squeeze out this step's dead zombies and eaten plants, between passes
+        zombies.compact();
+        zombieStore.compact();
+        plants.compact();
+
+        if (headless) {
+            events.dispatch(); // nobody syncs a scene
+        }
+    }
+
+    // Trigger the row's mower when a zombie reaches it, or end the game if the mower is already spent.
+    void checkLawnMowers(Zombie zombie) {
+        if (!zombie.isAlive()) {
+            return;
+        }
+        double zombieCenterY = zombie.getPosY() + zombie.getHeight() / 2;
+        for (int i = 0; i < Yard.ROWS; i++) {
+            LawnMower mower = lawnMowers[i];
+            if (mower == null) {
+                continue;
+            }
+            if (zombieCenterY < mower.getPosY() || zombieCenterY > mower.getPosY() + mower.getHeight()) {
+                continue;
+            }
+
+            if (zombie.getPosX() <= mower.getPosX() + mower.getWidth() && mower.isAlive() && !mower.isActive()) {
+                mower.activate();
+            }
+
+            boolean mowerSpent = !mower.isAlive();
+            if (mowerSpent && zombie.getPosX() + zombie.getWidth() <= Yard.HOUSE_BOUNDARY_X) {
+                System.out.println("Zombie passed the lawnmower at row: " + i);
+                gameOver();
+                return;
+            }
+        }
+    }
+
+    /** Stop the behaviour timer of every plant in this world, leaving other games alone. */
+    public void stopPlantBehaviours() {
+        plants.forEach(Plant::stopBehaviour);
+    }
+
+    /** Forget every entity; callers remove the sprites themselves. */
+    public void clear() {
+        synchronized (grid) {
+            for (Characters[] row : grid) {
+                Arrays.fill(row, null);
+            }
+        }
+        plants.clear();
+        zombies.clear();
+        zombieStore.clear();
+        plantLanes.clear();
+        zombieLanes.clear();
+        projectiles.clear();
+        sceneChanges.clear();
+        events.clear();
+        zombiesKilled = 0;
+        sunCollected = 0;
+        paused = false;
+    }
+}
@@ -3,6 +3,7 @@ package pvz.model;
 import javafx.animation.*;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.ImageCursor;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -15,8 +16,8 @@ import javafx.scene.layout.AnchorPane;
 import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.GridPane;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
@@ -24,12 +25,15 @@ import javafx.scene.text.Font;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Random;
 
 import pvz.Level;
+import pvz.ui.CanvasRenderer;
 import pvz.ui.GameMenuPane;
+import pvz.ui.MetricsOverlay;
 import pvz.util.AssetLoader;
+import pvz.util.PerfMetrics;
 
 /**
  * Full-featured Yard implementation (adapted into `pvz.model` package).
@@ -38,121 +42,96 @@ import pvz.util.AssetLoader;
  * the play menu again without external helpers. If you have those helpers, we
  * can wire them back.
  */
-public class Yard extends Thread
+public class Yard
 {
 	// Each yard needs to have a parent level
-	public static Level parentLevel;
-	private static Stage activeStage;
+	private final Level parentLevel;
+	private final Stage activeStage;
 	private static String activePlayerUsername;
-	private static boolean pixelArtMode;
 
 	// YARD CONSTANT VARIABLES
 	public static final int ROWS = 5, COLUMNS = 9, WIDTH = 1278, HEIGHT = 650, MINUTES = 4, SUNCOUNTER = 50, PREVIEW_SECONDS = 15;
-	private static final double HOUSE_BOUNDARY_X = 157; // Where lawnmowers sit / house starts
+	public static final double HOUSE_BOUNDARY_X = 157; // Where lawnmowers sit / house starts
+	public static final int[] ZOMBIE_LANE_Y = {134, 207, 298, 376, 468}; // Spawn Y for each row
+	public static final int[] MOWER_LANE_Y = {167, 251, 339, 425, 514}; // Lawn mower Y for each row
+	public static final double MAX_ZOMBIE_WIDTH = 135, MAX_PLANT_WIDTH = 90; // Widest sprites, used as query slack
+
+	// This game's simulation state: grid, zombies, plants, lane indexes, peas, sun and gameOn.
+	// Entities get it through setWorld() when they are placed or spawned.
+	private final World world = new World();
+	// Tick, frame and entity metrics for this game, shown with F3 (see MetricsOverlay)
+	private final PerfMetrics metrics;
+	private MetricsOverlay metricsOverlay;
+	// Set when the playfield is drawn on canvases (-Dpvz.renderer=canvas) rather than as nodes
+	private CanvasRenderer renderer;
+	private final Characters[][] grid = world.getGrid(); // Used Placement of plants
+	private ArrayList<ImageView> staticZombies = new ArrayList<>();
 
-	// IMPORTANT ARRAYS FOR GAMEPLAY TRACKING OF PLANTS & LAWNMOWERS
-	public static volatile Characters[][] grid; // Used Placement of plants
-	private LawnMower[] lawnMowers;
+	// Single fixed-timestep clock that calls world.step() on the FX thread
+	private GameLoop gameLoop;
 
-	// Used for collision handling between plants/peas & zombies
-	public static volatile ArrayList<Zombie> zombies = new ArrayList<>(); // Collision with zombies (plants side)
-	public static volatile ArrayList<Plant> plants = new ArrayList<>(); // Collision with plants (zombies side)
-	public static volatile ArrayList<Pea> peas = new ArrayList<>(); 	 // Collision With peas
-	private ArrayList<ImageView> staticZombies = new ArrayList<>();
+	// Pausing stops the clock; the overlay offers resume or save & quit
+	private boolean paused;
+	private StackPane pauseMenu;
+	// Saved game to pick up instead of starting fresh, or null
+	private final YardSnapshot resumeFrom;
 
 	// Variables specific to each level!
-	public static volatile boolean gameOn = true;
-	private static int zombieSpawnInterval;
-	private static int minSpawnIntervalSeconds = 2;
-	private static int spawnIntervalDecreaseRate = 1;
-	private static int initialSpawnIntervalSeconds = 20;
-	private static int startingSunCount = SUNCOUNTER;
-	private static boolean infiniteLevel = false;
-	public static double timeLeft;
-	public static int sunCounter;
-	private Timeline timeline; // Declare timeline as a class-level variable
+	private final LevelRules rules;
+	// Brings zombies in on the level's schedule, counted in ticks
+	private ZombieSpawner spawner;
+	private boolean infiniteLevel = false;
+	private double timeLeft; // counted down once per second of ticks
 
 	// GUI-related variables
-	public static AnchorPane root=new AnchorPane();
-	public static Label label; // Related for sun counter
+	private AnchorPane root=new AnchorPane();
+	private Label label; // Related for sun counter
 	private ProgressBar levelProgressBar;  // The progress bar to track level duration
 
 	/* constructor, to initialize the 2d array of type Characters, in which plants and zombies inherit from.
 	also is used to make instance of the lawn mowers at the beginning of each row.*/
 	public Yard(Level parentLevel, Stage stage)
+	{
+		this(parentLevel, stage, null);
+	}
+
+	// Same, but continuing the saved game in `resumeFrom` (if not null) instead of starting a new one
+	public Yard(Level parentLevel, Stage stage, YardSnapshot resumeFrom)
 	{
 		// Parent level
 		this.parentLevel = parentLevel;
+		this.resumeFrom = resumeFrom;
 		activeStage = stage;
-		infiniteLevel = parentLevel.getLevelNumber() == 4;
-		pixelArtMode = parentLevel.getLevelNumber() == 5;
+		world.setPixelArt(parentLevel.getLevelNumber() == 5);
 
 		// Root pane that has everything on it
 		root = new AnchorPane();
+		world.setRoot(root);
+		world.setOnGameOver(this::gameOver);
+		subscribeToEvents();
+		metrics = new PerfMetrics("level" + parentLevel.getLevelNumber());
+		metrics.setEntityCounts(world::countEntities);
+		metrics.setQueued(world::getQueuedWork);
 
 
-		configureDifficultySettings(parentLevel.getLevelNumber());
-		zombieSpawnInterval = initialSpawnIntervalSeconds;
-
-		// Initialize Characters 2D Array to keep a-hold of Zombies, Plants, LawnMower, and possibly peas.
-		grid = new Characters[ROWS][COLUMNS];
+		rules = LevelRules.forLevel(parentLevel.getLevelNumber());
+		infiniteLevel = rules.isInfinite();
+		spawner = new ZombieSpawner(world, rules);
 
-		// Clear previous plants/zombies arraylists in case started multiple levels in the same run.
-		plants.clear();
-		zombies.clear();
 
 		// Level specific stuff
 		timeLeft = infiniteLevel ? Double.POSITIVE_INFINITY : parentLevel.getDurationInSeconds();
 		System.out.println("DEBUG level duration seconds=" + parentLevel.getDurationInSeconds());
-		sunCounter = startingSunCount;
-
-		label = new Label(String.valueOf(sunCounter));
+		label = new Label(String.valueOf(rules.getStartingSunCount()));
+		world.setOnSunChanged(count -> label.setText(String.valueOf(count)));
+		world.setSunCounter(rules.getStartingSunCount());
 
 		// Build the yard UI so Main can create a Scene with `yard.root`
 		displayYard();
-	}
 
-	private void configureDifficultySettings(int levelNumber)
-	{
-		switch (levelNumber)
-		{
-			case 1 -> {
-				initialSpawnIntervalSeconds = 24;
-				minSpawnIntervalSeconds = 10;
-				spawnIntervalDecreaseRate = 0;
-				startingSunCount = 150;
-			}
-			case 2 -> {
-				initialSpawnIntervalSeconds = 20;
-				minSpawnIntervalSeconds = 8;
-				spawnIntervalDecreaseRate = 1;
-				startingSunCount = 125;
-			}
-			case 3 -> {
-				initialSpawnIntervalSeconds = 16;
-				minSpawnIntervalSeconds = 6;
-				spawnIntervalDecreaseRate = 1;
-				startingSunCount = 100;
-			}
-			case 4 -> {
-				initialSpawnIntervalSeconds = 14;
-				minSpawnIntervalSeconds = 5;
-				spawnIntervalDecreaseRate = 1;
-				startingSunCount = 125;
-			}
-			case 5 -> {
-				initialSpawnIntervalSeconds = 12;
-				minSpawnIntervalSeconds = 4;
-				spawnIntervalDecreaseRate = 1;
-				startingSunCount = 100;
-			}
-			default -> {
-				initialSpawnIntervalSeconds = 18;
-				minSpawnIntervalSeconds = 5;
-				spawnIntervalDecreaseRate = 1;
-				startingSunCount = SUNCOUNTER;
-			}
-		}
+		// Record the inputs of a new game so it can be replayed; a resumed one didn't start from the seed
+		if (resumeFrom == null)
+			world.setInputLog(new Replay(parentLevel.getLevelNumber(), world.getRandom().getSeed(), false));
 	}
 
 	private static double initialTimeForLevel(int levelNumber) {
@@ -162,39 +141,6 @@ public class Yard extends Thread
 		return (MINUTES * 60) + PREVIEW_SECONDS;
 	}
 
-	private Zombie createZombieForLevel(int levelNumber, int x, int y, Random random)
-	{
-		double roll = random.nextDouble();
-		return switch (levelNumber)
-		{
-			case 1 -> roll < 0.8 ? new DefaultZombie(x, y) : new ConeZombie(x, y);
-			case 2 -> {
-				if (roll < 0.65) yield new DefaultZombie(x, y);
-				if (roll < 0.85) yield new ConeZombie(x, y);
-				yield new HelmetZombie(x, y);
-			}
-			case 3 -> {
-				if (roll < 0.5) yield new DefaultZombie(x, y);
-				if (roll < 0.8) yield new ConeZombie(x, y);
-				if (roll < 0.95) yield new HelmetZombie(x, y);
-				yield new FootballZombie(x, y);
-			}
-			case 4 -> {
-				if (roll < 0.4) yield new DefaultZombie(x, y);
-				if (roll < 0.7) yield new ConeZombie(x, y);
-				if (roll < 0.9) yield new HelmetZombie(x, y);
-				yield new FootballZombie(x, y);
-			}
-			case 5 -> {
-				if (roll < 0.3) yield new DefaultZombie(x, y);
-				if (roll < 0.55) yield new ConeZombie(x, y);
-				if (roll < 0.8) yield new HelmetZombie(x, y);
-				yield new FootballZombie(x, y);
-			}
-			default -> new DefaultZombie(x, y);
-		};
-	}
-
 	/* a method made to check if the current cell ur trying to place a plant at lies between the
 	 interval of rows and columns in the 2d array */
 	public boolean isValidPosition(int row, int col)
@@ -219,44 +165,40 @@ public class Yard extends Thread
 		// Place the plant only if the position is valid: 1. no plant is on the cell, and 2. inside the yard
 		if (isValidPosition(row, col))
 		{
-			// The grid is used to keep track whether the grid cell is taken up by a plant.
-			grid[row][col] = plant;
-
-			// Add x and y to be used with collision handling
-			plant.setX(row);
-			plant.setY(col);
-
-			// Also add the ArrayList of plants to handle collision
-			synchronized (plants)
-			{
-				plants.add(plant);
-			}
-
-			// Call the plants' subclass over-ridden appear function.
-			plant.appear(root);
-
-			// If it's a Sunflower, start producing suns
-			if (plant instanceof Sunflower) {
-				Sunflower sunflower = (Sunflower) plant;  // Safe cast
-				sunflower.startSunProduction(root);  // Pass both parameters
-			}
-
-
-			// Audio for placing a plant.
-			plantPlacedAudio();
+			putPlant(plant, row, col);
+			Replay inputLog = world.getInputLog();
+			if (inputLog != null)
+				inputLog.recordPlace(world.getTickCount(), plant.getClass(), row, col);
+			world.getEvents().publish(GameEvents.Type.PLANT_PLACED, plant, row, plant.getCost());
 
 			// For tracing
 			System.out.println("Plant Placed Successfully at [" + row + "]" + "[" + col + "]");
-
-			// Create a plant object thread, in order to intitate it's action!
-			// plant.setAlive(true); -> No need i added it into appear of plant super class
-			Thread plantThread = new Thread(plant);
-			plantThread.start();
 		}
 		else
 			System.out.println("Failed to place plant, one already exists at this cell.");
 	}
 
+	// Put a plant on the lawn and start it; shared by placing from a card and restoring a saved game
+	private void putPlant(Plant plant, int row, int col)
+	{
+		// The grid keeps track of taken cells, the plant list and lanes handle collision;
+		// the plant's x and y become its row and column.
+		world.addPlant(plant, row, col);
+
+		// Call the plants' subclass over-ridden appear function.
+		plant.appear(world.getRoot());
+
+		// If it's a Sunflower, start producing suns
+		if (plant instanceof Sunflower) {
+			Sunflower sunflower = (Sunflower) plant;  // Safe cast
+			sunflower.startSunProduction(root);  // Pass both parameters
+		}
+
+		// Start the plant's action on the shared plant scheduler
+		// plant.setAlive(true); -> No need i added it into appear of plant super class
+		plant.startBehaviour();
+	}
+
 	public synchronized Plant getPlantAt(int row, int col)
 	{
 		// Ensure the grid position contains a Plant instance
@@ -274,15 +216,14 @@ public class Yard extends Thread
 
 		if (plantToRemove != null)
 		{
-			synchronized (plants)
-			{
-				// Remove from the plants list
-				plants.remove(plantToRemove);
-			}
+			// Remove from the grid cell, the plants list and its lane
+			world.removePlant(plantToRemove);
+			Replay inputLog = world.getInputLog();
+			if (inputLog != null)
+				inputLog.recordShovel(world.getTickCount(), row, col);
 
-			grid[row][col].disappear(root); // Now disappear removes from the root directly! (Notice changes in "Plant" class)
-			grid[row][col] = null; // Clear the grid cell
-			shovelPlantAudio();
+			plantToRemove.disappear(world.getRoot()); // Now disappear removes from the root directly! (Notice changes in "Plant" class)
+			world.getEvents().publish(GameEvents.Type.PLANT_REMOVED, plantToRemove, row, 0);
 
 			System.out.println("Plant removed at row: " + row + ", col: " + col);
 		}
@@ -291,170 +232,156 @@ public class Yard extends Thread
 
 	}
 
-	/* spawns a zombie, used setZombieSpawnInterval in seconds to detect how much would it
-	 take to spawn another zombie */
-	public void spawnZombie() throws InterruptedException
+	/* Starts the fixed-timestep simulation for this yard. Called on the JavaFX thread once the
+	 yard scene is shown. */
+	public void startSimulation()
 	{
-		int[] specificNumbers = {134, 207, 298, 376, 468}; // Predefined Y positions for zombie spawn
-		int minx = 957; // Minimum X position
-		int maxx = 1202; // Maximum X position
-		Random random = new Random();
+		if (gameLoop != null)
+			gameLoop.stop();
+		// Scene changes from the tick are applied once per frame by world.syncScene()
+		gameLoop = new GameLoop(this::tick, renderer == null ? world::syncScene : () -> {
+			world.syncScene();
+			renderer.render();
+		});
+		gameLoop.setMetrics(metrics);
+		world.setRenderSync(true);
+		gameLoop.start();
+	}
 
-		long startTime = System.currentTimeMillis();
-		int levelNumber = parentLevel.getLevelNumber();
+	// Sounds, hit flashes and banners follow the game's events, dispatched once per frame
+	private void subscribeToEvents()
+	{
+		GameEvents events = world.getEvents();
+		events.subscribe(GameEvents.Type.ZOMBIE_SPAWNED, event -> zombieSpawnAudio());
+		events.subscribe(GameEvents.Type.ZOMBIE_HIT, event -> {
+			Zombie zombie = (Zombie) event.subject();
+			if (renderer != null)
+				renderer.flash(zombie.getElementImage());
+			else
+				zombie.flash();
+		});
+		events.subscribe(GameEvents.Type.PEA_HIT, event -> peaHitsZombieAudio());
+		events.subscribe(GameEvents.Type.PLANT_PLACED, event -> plantPlacedAudio());
+		events.subscribe(GameEvents.Type.PLANT_REMOVED, event -> shovelPlantAudio());
+		events.subscribe(GameEvents.Type.SUN_COLLECTED, event -> sunCollectedAudio());
+		events.subscribe(GameEvents.Type.HUGE_WAVE, event -> {
+			hugeWaveText();
+			zombieWaveAudio();
+		});
+	}
 
-		while (gameOn && (infiniteLevel || timeLeft > 0))
+	/* One simulation step: spawn what is due, let the world advance zombies, peas, lawn mowers and
+	 plants in a single pass, then run the level clock. Everything that decides the game happens here,
+	 in tick order, so a recorded game replays the same way (see Replay). */
+	private void tick()
+	{
+		if (!world.isGameOn())
 		{
-			// Decrease the spawn interval dynamically over time
-			long elapsedMinutes = (System.currentTimeMillis() - startTime) / 10000; // Calculate elapsed minutes
-			zombieSpawnInterval = Math.max(minSpawnIntervalSeconds, zombieSpawnInterval - (int) (elapsedMinutes * spawnIntervalDecreaseRate));
-
-			try {
-				Thread.sleep(zombieSpawnInterval * 1000); // Wait before spawning a new zombie
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-
-			if(!gameOn || (!infiniteLevel && timeLeft < 0))
-			{
-				zombieSpawnInterval = initialSpawnIntervalSeconds;
-				break;
-			}
-
-			int randomIndex = random.nextInt(specificNumbers.length); // Generate a random index for Y position
-			int y = specificNumbers[randomIndex];
-			int x = random.nextInt((maxx - minx) + 1) + minx; // Generate random X position within the defined range
+			gameLoop.stop();
+			world.setRenderSync(false);
+			return;
+		}
+		spawner.tick();
+		world.step();
+		if (world.isGameOn() && world.getTickCount() % GameLoop.TICKS_PER_SECOND == 0)
+			countDownLevelTimer();
+	}
 
-			Zombie zombie = createZombieForLevel(levelNumber, x, y, random);
+	// Escape toggles the pause menu; Level wires it to the yard's scene
+	public void togglePause()
+	{
+		if (paused)
+			resumeGame();
+		else
+			pauseGame();
+	}
 
-			// If zombie is still null (though it shouldn't happen with above conditions), assign a default zombie
-			if (zombie == null) {
-				zombie = new DefaultZombie(x, y);
-			}
+	/* Freeze the game: the simulation clock stops, and with it spawns, plants and the level timer,
+	 and sun stops falling, until resumeGame() or saveAndQuit(). */
+	public void pauseGame()
+	{
+		if (paused || !world.isGameOn() || gameLoop == null)
+			return;
+		paused = true;
+		world.setPaused(true);
+		gameLoop.stop();
+		showPauseMenu();
+	}
 
-			// Create a new zombie at the random position
-			zombie.setAlive(true);
+	public void resumeGame()
+	{
+		if (!paused)
+			return;
+		root.getChildren().remove(pauseMenu);
+		paused = false;
+		world.setPaused(false);
+		gameLoop.start();
+	}
 
-			// Added to be used with collision handling (with pea)
-			zombies.add(zombie);
+	// Write the paused game to the player's save for this level and go back to the menu without a win or a loss
+	private void saveAndQuit()
+	{
+		long start = System.nanoTime();
+		YardSnapshot snapshot = YardSnapshot.capture(world, parentLevel.getLevelNumber(), timeLeft,
+				spawner.getIntervalSeconds(), spawner.getNextSpawnTick());
+		try {
+			snapshot.save(activePlayerUsername);
+		} catch (IOException e) {
+			showMenuInfo("Could not save the game: " + e.getMessage());
+			return;
+		}
+		System.out.printf("Game saved in %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+		world.setGameOn(false);
+		world.setRenderSync(false);
+		saveReplay();
+		SoundtrackPlayer.stopTrack();
+		SoundtrackPlayer.playMenuTrack();
+		returnToMainMenu();
+	}
 
-			// Run the zombie appearance and audio in the UI thread
-			Zombie finalZombie = zombie;
-			Platform.runLater(() -> {
-				if(gameOn)
-				{
-					finalZombie.appear(root, x, y);
-					zombieSpawnAudio();
-				}
-			});
+	private void showPauseMenu()
+	{
+		Label title = new Label("Paused");
+		title.setStyle("-fx-font-size: 36px; -fx-text-fill: white; -fx-font-weight: bold;");
+
+		Button resumeButton = new Button("Resume");
+		resumeButton.setOnAction(e -> resumeGame());
+		Button saveButton = new Button("Save & Quit");
+		saveButton.setOnAction(e -> saveAndQuit());
+		for (Button button : new Button[] {resumeButton, saveButton})
+		{
+			button.setPrefWidth(200);
+			button.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-background-radius: 8;");
+		}
 
-			System.out.println("Zombie placed at x: " + x + ", y: " + y);
-
-			// Create a new thread for the zombie movement
-			Zombie finalZombie1 = zombie;
-			new Thread(() -> {
-				while (gameOn && finalZombie1.isAlive()) {
-					finalZombie1.move();
-
-					ImageView zombieView = finalZombie1.getElementImage();
-					if (zombieView != null) {
-						for (int i = 0; i < ROWS; i++) {
-							LawnMower mower = lawnMowers[i];
-							if (mower == null) continue;
-							ImageView mowerView = mower.getElementImage();
-							if (mowerView == null) continue;
-
-							double mowerTop = mowerView.getLayoutY();
-							double mowerBottom = mowerTop + mowerView.getFitHeight();
-							double zombieCenterY = zombieView.getLayoutY() + (zombieView.getFitHeight() / 2);
-
-							if (zombieCenterY < mowerTop || zombieCenterY > mowerBottom) continue;
-
-							double zombieLeftEdge = zombieView.getLayoutX();
-							double zombieRightEdge = zombieLeftEdge + zombieView.getFitWidth();
-							double mowerRightEdge = mowerView.getLayoutX() + mowerView.getFitWidth();
-
-							if (zombieLeftEdge <= mowerRightEdge && mower.isAlive() && !mower.isActive()) {
-								LawnMower rowMower = mower;
-								Platform.runLater(() -> rowMower.activate(root));
-							}
-
-							boolean mowerSpent = !mower.isAlive();
-							if (mowerSpent && zombieRightEdge <= HOUSE_BOUNDARY_X) {
-								System.out.println("Zombie passed the lawnmower at row: " + i);
-								gameOver();
-								return;
-							}
-						}
-					}
+		VBox buttons = new VBox(16, title, resumeButton, saveButton);
+		buttons.setAlignment(Pos.CENTER);
 
-					try {
-						Thread.sleep(20); // Control the speed of the zombie movement
-					} catch (InterruptedException e) {
-						e.printStackTrace();
-					}
-				}
-			}).start();
-		}
+		pauseMenu = new StackPane(buttons);
+		pauseMenu.setPrefSize(WIDTH, HEIGHT);
+		pauseMenu.setStyle("-fx-background-color: rgba(0,0,0,0.55);");
+		root.getChildren().add(pauseMenu);
 	}
 
-	public static void resetGame()
+	public void resetGame()
 	{
 		// Reset game state variables
-		gameOn = true;
-		zombieSpawnInterval = initialSpawnIntervalSeconds;
-		sunCounter = startingSunCount;
-		timeLeft = (parentLevel != null && parentLevel.getLevelNumber() == 4)
+		world.setGameOn(true);
+		spawner = new ZombieSpawner(world, rules);
+		world.setSunCounter(rules.getStartingSunCount());
+		timeLeft = infiniteLevel
 			? Double.POSITIVE_INFINITY
 			: parentLevel != null ? parentLevel.getDurationInSeconds() : initialTimeForLevel(1);
 
-			// Clear all plants and set them inactive
-			plants.forEach(plant -> {
-				if(plants!=null){
-					Platform.runLater(() -> {
-					plant.disappear(root);
-					});
-				}
-			});
-			plants.clear();
-
-
-				peas.forEach(pea -> {
-					if(pea!=null){
-						Platform.runLater(() -> {
-						pea.disappear(root);
-						});
+		// Stop every plant's scheduled action, then set all plants and zombies inactive
+		world.stopPlantBehaviours();
+		Pane oldRoot = world.getRoot();
+		world.getPlants().forEach(plant -> Platform.runLater(() -> plant.disappear(oldRoot)));
+		world.getZombies().forEach(zombie -> Platform.runLater(() -> zombie.disappear(oldRoot)));
 
-					}
-				});
-
-				peas.clear();
-				// Clear all peas
-
-
-			// Clear all zombies and set them inactive
-			zombies.forEach(zombie -> {
-				if(zombie!=null)
-				{
-					Platform.runLater(() -> {
-						zombie.disappear(root);
-					});
-				}
-
-			});
-			zombies.clear();
-
-		//Making sure that all the indexes in the grid pane is empty now
-		for(int i=0;i<ROWS;i++){
-			for(int j=0;j<COLUMNS;j++){
-				if(grid[i][j]!=null){
-					System.out.println("Plant Removed from Grid");
-					grid[i][j].disappear(root);
-					grid[i][j]=null;
-				}
-
-			}
-		}
+		// Forget every plant, zombie and pea, and empty the grid
+		world.clear();
 
 		// Reset other game-related elements
 		root.getChildren().clear(); // Remove all nodes from the yard
@@ -462,8 +389,14 @@ public class Yard extends Thread
 	}
 
 
-	public static void gameOver() {
-		gameOn = false;
+	public void gameOver() {
+		if (!world.isGameOn()) {
+			return; // already decided
+		}
+		world.setGameOn(false);
+		world.stopPlantBehaviours();
+		recordStats(false);
+		saveReplay();
 
 		Platform.runLater(() -> {
 			// Clear the grid
@@ -471,7 +404,7 @@ public class Yard extends Thread
 				for (int j = 0; j < COLUMNS; j++) {
 					if (grid[i][j] != null) {
 						System.out.println("Plant removed from Grid");
-						grid[i][j].disappear(root);
+						grid[i][j].disappear(world.getRoot());
 						grid[i][j] = null;
 					}
 				}
@@ -551,8 +484,14 @@ public class Yard extends Thread
 	}
 
 
-	public static void gameWin() {
-		gameOn = false;
+	public void gameWin() {
+		if (!world.isGameOn()) {
+			return; // already decided
+		}
+		world.setGameOn(false);
+		world.stopPlantBehaviours();
+		recordStats(true);
+		saveReplay();
 
 		Platform.runLater(() -> {
 			// Reset the game state by clearing the grid
@@ -560,7 +499,7 @@ public class Yard extends Thread
 				for (int j = 0; j < COLUMNS; j++) {
 					if (grid[i][j] != null) {
 						System.out.println("Plant removed from Grid");
-						grid[i][j].disappear(root);
+						grid[i][j].disappear(world.getRoot());
 						grid[i][j] = null;
 					}
 				}
@@ -639,7 +578,26 @@ public class Yard extends Thread
 		System.out.println("Game has ended, all zombie spawns and threads should stop");
 	}
 
-	private static void returnToMainMenu() {
+	// Add this game's result, kills and collected sun to the signed-in player's stats
+	private void recordStats(boolean won) {
+		PlayerStats.get().recordGame(activePlayerUsername, parentLevel.getLevelNumber(), won,
+				world.getZombiesKilled(), world.getSunCollected());
+	}
+
+	// Keep this game's inputs as the player's latest replay of the level
+	private void saveReplay() {
+		Replay inputLog = world.getInputLog();
+		if (inputLog == null)
+			return;
+		inputLog.finish(world.getTickCount());
+		try {
+			inputLog.save(activePlayerUsername);
+		} catch (IOException e) {
+			System.out.println("Could not save replay: " + e.getMessage());
+		}
+	}
+
+	private void returnToMainMenu() {
 		Platform.runLater(() -> {
 			String username = (activePlayerUsername == null || activePlayerUsername.isBlank()) ? "Player" : activePlayerUsername;
 			GameMenuPane menu = new GameMenuPane(username);
@@ -688,12 +646,24 @@ public class Yard extends Thread
 		});
 	}
 
-	public static void setActivePlayerUsername(String username) {
-		activePlayerUsername = username;
+	public World getWorld() {
+		return world;
+	}
+
+	public MetricsOverlay getMetricsOverlay() {
+		return metricsOverlay;
+	}
+
+	public AnchorPane getRoot() {
+		return root;
 	}
 
-	public static boolean isPixelArtMode() {
-		return pixelArtMode;
+	public static String getActivePlayerUsername() {
+		return activePlayerUsername;
+	}
+
+	public static void setActivePlayerUsername(String username) {
+		activePlayerUsername = username;
 	}
 
 	private static void showMenuInfo(String message) {
@@ -703,27 +673,14 @@ public class Yard extends Thread
 	}
 
 
-	public static void startNewGame()
+	public void startNewGame()
 	{
 		resetGame(); // Clear the game state first
 
 		// Initialize root if not already done
 		root = new AnchorPane();
-		Yard.root = root; // Make root globally accessible if necessary
-
-	}
-
-
+		world.setRoot(root); // Entities draw themselves on the world's root
 
-	@Override
-	public void run()
-	{
-		try {
-			spawnZombie();
-		}
-		catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		}
 	}
 
 	private void createLevelDurationBar(AnchorPane root)
@@ -749,54 +706,37 @@ public class Yard extends Thread
 	}
 
 
-	// Start the level timer and update the progress bar
+	// Show the level timer's progress bar; tick() counts the time down
 	public void startLevelTimer()
 	{
 		if (infiniteLevel) {
 			return; // No countdown for infinite mode
 		}
-		// Initial progress is 1.0 (100%), and it decreases to 0.0 as timeLeft decreases to 0
-		levelProgressBar.setProgress(1.0);
-
-		// Variable to hold original time
-		double originalTime = timeLeft;
-
-		// Initialize the timeline
-		timeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-			if (timeLeft > 0 && Yard.gameOn)
-			{
-				// Decrease the remaining time by 1 second
-				timeLeft -= 1;
-
-				// Use Platform.runLater for UI updates
-				Platform.runLater(() -> {
-					// Update the progress bar proportionally
-					levelProgressBar.setProgress(timeLeft / originalTime);
-
-					// For Debugging purposes
-					System.out.println("Time left: " + timeLeft);
-				});
-			}
-			else
-			{
-				// Call the loading screen for the main menu
-				if(timeLeft <= 0)
-					gameWin();
-
-				// Level is over, stop the timeline
-				timeline.stop();
-
-				// Handle level completion logic here
-				System.out.println("Level Completed!");
+		// Progress starts at 1.0 (100%), or less for a resumed game, and decreases to 0.0 as timeLeft decreases to 0
+		levelProgressBar.setProgress(timeLeft / parentLevel.getDurationInSeconds());
+	}
 
-			}
-		}));
+	// One second of game time has passed: run the level clock down, and win once it is out
+	private void countDownLevelTimer()
+	{
+		if (infiniteLevel)
+			return;
+		if (timeLeft > 0)
+		{
+			// Decrease the remaining time by 1 second
+			timeLeft -= 1;
 
-		// Set the timeline to repeat indefinitely (so it updates every second)
-		timeline.setCycleCount(Timeline.INDEFINITE);
+			// Update the progress bar proportionally
+			levelProgressBar.setProgress(timeLeft / parentLevel.getDurationInSeconds());
 
-		// Start the timeline (the countdown)
-		timeline.play();
+			// For Debugging purposes
+			System.out.println("Time left: " + timeLeft);
+		}
+		if (timeLeft <= 0)
+		{
+			gameWin();
+			System.out.println("Level Completed!");
+		}
 	}
 
 	private void readySetPlant() {
@@ -851,7 +791,7 @@ public class Yard extends Thread
 				plantPause.setOnFinished(goEvent -> {
 					// Create shake and zoom effects
 					Timeline shakeTimeline = new Timeline();
-					Random random = new Random();
+					var random = world.getRandom().cosmetic();
 
 					// Generate random shake and scale
 					for (int i = 0; i < 20; i++) { // 20 keyframes for a more dramatic effect
@@ -874,8 +814,7 @@ public class Yard extends Thread
 					// When the shake is done, remove the "PLANT!" image and overlay
 					shakeTimeline.setOnFinished(shakeEvent -> {
 						root.getChildren().removeAll(plantImage, overlay);
-						Sun sun = new Sun();
-						sun.appear(root);
+						startSkySun();
 					});
 
 					shakeTimeline.play();
@@ -888,6 +827,14 @@ public class Yard extends Thread
 	}
 
 
+	// Start the sun that falls from the sky every few seconds
+	private void startSkySun()
+	{
+		Sun sun = new Sun();
+		sun.setWorld(world);
+		sun.appear(root);
+	}
+
 	private void hugeWaveText() {
 		ImageView waveImage = new ImageView(AssetLoader.loadImage("/pvz/images/others/HugeWave.gif"));
 		waveImage.setFitWidth(500);
@@ -906,8 +853,8 @@ public class Yard extends Thread
 	{
 		for (int i = 0; i < 8; i++)
 		{
-			ImageView zombie = new ImageView(AssetLoader.loadImage("/pvz/images/yardStaticZombies/" + i + ".gif"));
-			// You can cache these images here if needed, like storing them in an ArrayList or a Map
+			// AssetLoader keeps the decoded image, so this just warms the cache for showStaticZombies()
+			AssetLoader.loadImage("/pvz/images/yardStaticZombies/" + i + ".gif");
 		}
 	}
 
@@ -923,12 +870,13 @@ public class Yard extends Thread
 			for (int i = 0; i < 8; i++)
 			{
 				String path = "/pvz/images/yardStaticZombies/" + i + ".gif";
-				var imageUrl = Yard.class.getResource(path);
-				if (imageUrl == null) {
+				ImageView zombie;
+				try {
+					zombie = new ImageView(AssetLoader.loadImage(path));
+				} catch (IllegalArgumentException e) {
 					System.err.println("Missing static zombie image: " + path);
 					continue;
 				}
-				ImageView zombie = new ImageView(new Image(imageUrl.toExternalForm()));
 				zombie.setFitWidth(127); // Adjust dimensions
 				zombie.setFitHeight(164);
 				zombie.setPreserveRatio(true);
@@ -1043,15 +991,27 @@ public class Yard extends Thread
 	// Added function called to display the yard when the level starts.
 	public void displayYard()
 	{
-		showStaticZombies();
+		// A resumed game skips the intro and goes straight back to where it was saved
+		if (resumeFrom == null)
+			showStaticZombies();
 		startNewGame();
-		zoomAndReveal();
+		if (resumeFrom == null)
+			zoomAndReveal();
 
 		// Set AnchorPane size
 		root.setPrefSize(WIDTH, HEIGHT);
 
+		// Zombies, plants, peas and mowers go on a canvas above the background instead of the root
+		if (CanvasRenderer.isRequested())
+			renderer = new CanvasRenderer(WIDTH, HEIGHT);
+
 		// Create ImageView for the yard background
 		generateYardImageView(root);
+		if (renderer != null)
+		{
+			world.setRoot(renderer.getSpriteHost());
+			root.getChildren().add(renderer.getSpriteLayer());
+		}
 
 		//Create progress bar only for timed levels
 		if (!infiniteLevel) {
@@ -1076,87 +1036,58 @@ public class Yard extends Thread
 
 		generateSunCounter();
 
+		if (resumeFrom != null)
+			restoreSavedGame();
+		// Show the mowers (and a resumed game) before the loop starts; queued behind their appear()
+		if (renderer != null)
+			Platform.runLater(renderer::render);
+
 		zombiesArrivalAudio();
 
 		if (!infiniteLevel) {
 			startLevelTimer();
 		}
 
+		metricsOverlay = new MetricsOverlay(metrics, WIDTH - 420, 90);
+		root.getChildren().add(metricsOverlay);
+	}
+
+	// Put the saved plants, zombies, peas and mowers back and carry on the clocks from where they stopped
+	private void restoreSavedGame()
+	{
+		resumeFrom.restore(world, this::putPlant);
+		timeLeft = infiniteLevel ? Double.POSITIVE_INFINITY : resumeFrom.getTimeLeft();
+		spawner.restore(resumeFrom.getSpawnIntervalSeconds(), resumeFrom.getNextSpawnTick());
+		startSkySun();
 	}
 
 	public void plantPlacedAudio() {
-		try {
-			String path = getClass().getResource("/pvz/music/plant placed.mp3").toExternalForm();
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.3);
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing planting sound: " + e.getMessage());
-		}
+		SoundEffects.play("/pvz/music/plant placed.mp3", 0.3);
 	}
 
 	public void shovelPlantAudio() {
-		try {
-			String path = getClass().getResource("/pvz/music/shovel plant.mp3").toExternalForm();
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.3);
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing shovel sound: " + e.getMessage());
-		}
+		SoundEffects.play("/pvz/music/shovel plant.mp3", 0.3);
 	}
 
 	public void zombiesArrivalAudio() {
-		try {
-			String path = getClass().getResource("/pvz/music/zombies arrive.mp3").toExternalForm();
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.3);
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing zombie sound: " + e.getMessage());
-		}
+		SoundEffects.play("/pvz/music/zombies arrive.mp3", 0.3);
 	}
 
-	private static MediaPlayer zombieSpawnMediaPlayer; // Keep a reference to the MediaPlayer for zombie spawn sound
+	public void peaHitsZombieAudio() {
+		SoundEffects.play("/pvz/music/pea hits zombie.mp3", 0.3);
+	}
+
+	public void sunCollectedAudio() {
+		SoundEffects.play("/pvz/music/sun pickup.mp3", 0.3);
+	}
 
 	public void zombieSpawnAudio() {
-		try {
-			String[] audioPaths = {
-					getClass().getResource("/pvz/music/zombie s1.mp3").toExternalForm(),
-					getClass().getResource("/pvz/music/zombie s2.mp3").toExternalForm(),
-					getClass().getResource("/pvz/music/zombie s3.mp3").toExternalForm()
-			};
-
-			// Randomly select one of the audio paths
-			Random random = new Random();
-			int randomIndex = random.nextInt(audioPaths.length); // Random index between 0 and 2
-			String selectedAudioPath = audioPaths[randomIndex];
-			Media media = new Media(selectedAudioPath);
-
-			// Create a new MediaPlayer for the selected audio
-			zombieSpawnMediaPlayer = new MediaPlayer(media);
-			zombieSpawnMediaPlayer.setVolume(0.3); // Adjust volume as needed
-			zombieSpawnMediaPlayer.play(); // Play the selected audio
-
-		} catch (Exception e) {
-			System.out.println("Error playing zombie spawn sound: " + e.getMessage());
-		}
+		// One of the three groans, picked at random
+		SoundEffects.playAny(0.3, "/pvz/music/zombie s1.mp3", "/pvz/music/zombie s2.mp3", "/pvz/music/zombie s3.mp3");
 	}
 
 	public void zombieWaveAudio() {
-		try {
-			String path = getClass().getResource("/pvz/music/zombie wave.mp3").toExternalForm();
-			System.out.println("Path: " + path);
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.3);
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing zombie wave sound: " + e.getMessage());
-		}
+		SoundEffects.play("/pvz/music/zombie wave.mp3", 0.3);
 	}
 
 	private void generateYardImageView(AnchorPane root)
@@ -1199,6 +1130,14 @@ public class Yard extends Thread
 		}
 
 		yardImageView.setSmooth(true);
+		if (renderer != null)
+		{
+			// Same image and place, painted once onto a canvas
+			root.getChildren().add(CanvasRenderer.createBackgroundLayer(yardImageView.getImage(),
+					yardImageView.getLayoutX(), yardImageView.getLayoutY(),
+					yardImageView.getFitWidth(), yardImageView.getFitHeight()));
+			return;
+		}
 		yardImageView.setCache(true);
 		root.getChildren().add(yardImageView);
 	}
@@ -1444,15 +1383,12 @@ public class Yard extends Thread
 
 	private void generateLawnMowers(AnchorPane root)
 	{
-		lawnMowers = new LawnMower[ROWS];
-		int[] rowPositions = {167, 251, 339, 425, 514};
 		for (int i = 0; i < ROWS; i++)
 		{
-			LawnMower mower = new LawnMower(i);
-			mower.getElementImage().setLayoutX(HOUSE_BOUNDARY_X);
-			mower.getElementImage().setLayoutY(rowPositions[i]);
-			mower.appear(root);
-			lawnMowers[i] = mower;
+			LawnMower mower = new LawnMower(world, i);
+			world.setLawnMower(i, mower);
+			mower.setPosition(HOUSE_BOUNDARY_X, MOWER_LANE_Y[i]);
+			mower.appear(world.getRoot());
 		}
 	}
 
@@ -1460,41 +1396,25 @@ public class Yard extends Thread
 	{
 		// Make sure sunCounterLabel is initialized and positioned properly
 		// Only set the initial label if it's not set yet
-		Yard.label.setText(String.valueOf(sunCounter)); // Initial value of sun counter
-		Yard.label.setStyle("-fx-font-size: 20px; -fx-text-fill: black; -fx-font-weight: bold;"); // Style the label
-		Yard.label.setLayoutX(248); // Position on the X-axis
-		Yard.label.setLayoutY(65); // Position on the Y-axis
+		label.setText(String.valueOf(world.getSunCounter())); // Initial value of sun counter
+		label.setStyle("-fx-font-size: 20px; -fx-text-fill: black; -fx-font-weight: bold;"); // Style the label
+		label.setLayoutX(248); // Position on the X-axis
+		label.setLayoutY(65); // Position on the Y-axis
 
 
 		// Add the label to the root pane to ensure it's visible on the screen
-		if (!root.getChildren().contains(Yard.label))
+		if (!root.getChildren().contains(label))
 		{
-			root.getChildren().add(Yard.label); // Add the label to the scene (root pane)
+			root.getChildren().add(label); // Add the label to the scene (root pane)
 		}
 	}
 
 	public static void gameWinAudio() {
-		try {
-			String path = Yard.class.getResource("/pvz/music/level win.mp3").toExternalForm();
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.3);
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing victory sound: " + e.getMessage());
-		}
+		SoundEffects.play("/pvz/music/level win.mp3", 0.3);
 	}
 
 	public static void gameLossAudio() {
-		try {
-			String path = Yard.class.getResource("/pvz/music/level loss.mp3").toExternalForm();
-			Media media = new Media(path);
-			MediaPlayer mediaPlayer = new MediaPlayer(media);
-			mediaPlayer.setVolume(0.3);
-			mediaPlayer.play();
-		} catch (Exception e) {
-			System.out.println("Error playing loss sound: " + e.getMessage());
-		}
+		SoundEffects.play("/pvz/music/level loss.mp3", 0.3);
 	}
 
 }
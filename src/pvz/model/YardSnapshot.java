@@ -0,0 +1,366 @@
+package pvz.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A game in progress, saved when the player pauses and quits and picked up again from the level
+ * menu. Java serialization can't be used for this (every entity holds an ImageView), so the
+ * snapshot is a small binary record of the simulation state only: the grid, each zombie's
+ * position, health and slow timer, each pea in flight, the lawn mowers, the sun counter, the
+ * level clock and the spawn timing. Sprites, sounds and plant timers are rebuilt on restore.
+ *
+ * Layout: magic, version, level, the counters, then a count followed by fixed-size entries for
+ * plants, zombies, peas and mowers, then a CRC32. Entity classes are written as their index in
+ * {@link #PLANT_TYPES} / {@link #ZOMBIE_TYPES}, so only append to those lists.
+ *
+ * Saves live in data/saves, one file per player and level.
+ */
+public final class YardSnapshot {
+    private static final Path DIR = Path.of("data", "saves");
+    private static final int MAGIC = 0x50565A59; // "PVZY"
+    private static final int VERSION = 1;
+
+    // Also used by Replay
+    static final List<Class<? extends Plant>> PLANT_TYPES = List.of(
+            Peashooter.class, Sunflower.class, Potato.class, Cherry.class, IcedPeashooter.class,
+            TorchWood.class, Repeater.class, Sunflower_Christmas.class, Potato_Christmas.class);
+    private static final List<Class<? extends Zombie>> ZOMBIE_TYPES = List.of(
+            DefaultZombie.class, ConeZombie.class, HelmetZombie.class, FootballZombie.class);
+
+    // Lawn mower states
+    private static final byte MOWER_GONE = 0, MOWER_PARKED = 1, MOWER_ROLLING = 2;
+
+    /** Puts a rebuilt plant on the lawn; the yard passes its own placement so sprites and timers start. */
+    public interface PlantPlacer {
+        void place(Plant plant, int row, int col);
+    }
+
+    private record PlantState(int type, int row, int col, int health) { }
+
+    private record ZombieState(int type, int lane, double x, double y, int health, double speed, int slowTicksLeft) { }
+
+    private record PeaState(int row, int col, double x, double y, int damage, boolean fire,
+                            boolean slow, double slowFactor, long slowDurationMs) { }
+
+    private final int levelNumber;
+    private int sunCounter;
+    private int zombiesKilled;
+    private int sunCollected;
+    private double timeLeft;
+    private int spawnIntervalSeconds;
+    private long tickCount;
+    private long nextSpawnTick;
+    private final ArrayList<PlantState> plants = new ArrayList<>();
+    private final ArrayList<ZombieState> zombies = new ArrayList<>();
+    private final ArrayList<PeaState> peas = new ArrayList<>();
+    private final byte[] mowerStates = new byte[Yard.ROWS];
+    private final double[] mowerX = new double[Yard.ROWS];
+
+    private YardSnapshot(int levelNumber) {
+        this.levelNumber = levelNumber;
+    }
+
+    /**
+     * Record {@code world} and the yard's clock. Call on the simulation thread with the game
+     * paused, so nothing moves while it is read.
+     */
+    public static YardSnapshot capture(World world, int levelNumber, double timeLeft, int spawnIntervalSeconds, long nextSpawnTick) {
+        YardSnapshot snapshot = new YardSnapshot(levelNumber);
+        snapshot.sunCounter = world.getSunCounter();
+        snapshot.zombiesKilled = world.getZombiesKilled();
+        snapshot.sunCollected = world.getSunCollected();
+        snapshot.timeLeft = timeLeft;
+        snapshot.spawnIntervalSeconds = spawnIntervalSeconds;
+        snapshot.tickCount = world.getTickCount();
+        snapshot.nextSpawnTick = nextSpawnTick;
+
+        for (Plant plant : world.getPlants()) {
+            int type = PLANT_TYPES.indexOf(plant.getClass());
+            if (type >= 0 && plant.isAlive()) {
+                snapshot.plants.add(new PlantState(type, plant.getX(), plant.getY(), plant.getHealth()));
+            }
+        }
+        for (Zombie zombie : world.getZombies()) {
+            int type = ZOMBIE_TYPES.indexOf(zombie.getClass());
+            if (type >= 0 && zombie.isAlive()) {
+                snapshot.zombies.add(new ZombieState(type, zombie.getLane(), zombie.getPosX(), zombie.getPosY(),
+                        zombie.getHealth(), zombie.getSpeed(), zombie.getSlowTicksLeft()));
+            }
+        }
+        world.getProjectiles().forEachLive(pea -> {
+            Plant parent = pea.getParent();
+            if (pea.isAlive() && !pea.isSpent() && parent != null && parent.isAlive()) {
+                snapshot.peas.add(new PeaState(parent.getX(), parent.getY(), pea.getPosX(), pea.getPosY(), pea.getDamage(),
+                        pea.isFirePea(), pea.hasSlowEffect(), pea.getSlowFactor(), pea.getSlowDurationMs()));
+            }
+        });
+        for (int row = 0; row < Yard.ROWS; row++) {
+            LawnMower mower = world.getLawnMower(row);
+            if (mower == null || !mower.isAlive()) {
+                snapshot.mowerStates[row] = MOWER_GONE;
+            } else {
+                snapshot.mowerStates[row] = mower.isActive() ? MOWER_ROLLING : MOWER_PARKED;
+                snapshot.mowerX[row] = mower.getPosX();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuild the saved plants, zombies, peas and mower states in {@code world}, which should be a
+     * freshly set up game of the same level with its mowers already placed. The yard restores its
+     * own clock from {@link #getTimeLeft()} and the spawn getters.
+     */
+    public void restore(World world, PlantPlacer placer) {
+        world.setSunCounter(sunCounter);
+        world.restoreTallies(zombiesKilled, sunCollected);
+        world.restoreTickCount(tickCount);
+
+        for (PlantState state : plants) {
+            try {
+                Plant plant = PLANT_TYPES.get(state.type()).getDeclaredConstructor(World.class, int.class, int.class)
+                        .newInstance(world, HeadlessSimulation.cellCenterX(state.col()), HeadlessSimulation.cellCenterY(state.row()));
+                placer.place(plant, state.row(), state.col());
+                plant.setHealth(state.health());
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Could not restore plant: " + e);
+            }
+        }
+        for (ZombieState state : zombies) {
+            try {
+                Zombie zombie = ZOMBIE_TYPES.get(state.type()).getDeclaredConstructor(World.class, int.class, int.class)
+                        .newInstance(world, (int) state.x(), (int) state.y());
+                zombie.setLane(state.lane());
+                zombie.setHealth(state.health());
+                zombie.appear(world.getRoot(), (int) state.x(), (int) state.y());
+                zombie.setPosition(state.x(), state.y());
+                world.addZombie(zombie, state.lane());
+                zombie.restoreSlow(state.speed(), state.slowTicksLeft());
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Could not restore zombie: " + e);
+            }
+        }
+        Characters[][] grid = world.getGrid();
+        for (PeaState state : peas) {
+            if (!(grid[state.row()][state.col()] instanceof Plant parent)) {
+                continue;
+            }
+            Pea pea = world.getProjectiles().fire(state.damage(), parent, state.x(), state.y());
+            // An ice pea that went through a TorchWood keeps its slow settings, just switched off
+            if (state.slow() || state.fire()) {
+                pea.enableSlowEffect(state.slowFactor(), state.slowDurationMs());
+            }
+            if (state.fire()) {
+                pea.ignite();
+                pea.setDamage(state.damage());
+            } else if (state.slow()) {
+                pea.setTintHue(0.5);
+            }
+        }
+        for (int row = 0; row < Yard.ROWS; row++) {
+            LawnMower mower = world.getLawnMower(row);
+            if (mower == null) {
+                continue;
+            }
+            if (mowerStates[row] == MOWER_GONE) {
+                mower.disappear(world.getRoot());
+            } else if (mowerStates[row] == MOWER_ROLLING) {
+                mower.setPosition(mowerX[row], mower.getPosY());
+                mower.activate();
+            }
+        }
+    }
+
+    public int getLevelNumber() {
+        return levelNumber;
+    }
+
+    public double getTimeLeft() {
+        return timeLeft;
+    }
+
+    public int getSpawnIntervalSeconds() {
+        return spawnIntervalSeconds;
+    }
+
+    /** Tick at which the next zombie was due when the game was saved. */
+    public long getNextSpawnTick() {
+        return nextSpawnTick;
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + plants.size() * 7 + zombies.size() * 42 + peas.size() * 46);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(levelNumber);
+            out.writeInt(sunCounter);
+            out.writeInt(zombiesKilled);
+            out.writeInt(sunCollected);
+            out.writeDouble(timeLeft);
+            out.writeInt(spawnIntervalSeconds);
+            out.writeLong(tickCount);
+            out.writeLong(nextSpawnTick);
+
+            out.writeShort(plants.size());
+            for (PlantState plant : plants) {
+                out.writeByte(plant.type());
+                out.writeByte(plant.row());
+                out.writeByte(plant.col());
+                out.writeInt(plant.health());
+            }
+            out.writeShort(zombies.size());
+            for (ZombieState zombie : zombies) {
+                out.writeByte(zombie.type());
+                out.writeByte(zombie.lane());
+                out.writeDouble(zombie.x());
+                out.writeDouble(zombie.y());
+                out.writeInt(zombie.health());
+                out.writeDouble(zombie.speed());
+                out.writeInt(zombie.slowTicksLeft());
+            }
+            out.writeShort(peas.size());
+            for (PeaState pea : peas) {
+                out.writeByte(pea.row());
+                out.writeByte(pea.col());
+                out.writeDouble(pea.x());
+                out.writeDouble(pea.y());
+                out.writeInt(pea.damage());
+                out.writeByte((pea.fire() ? 1 : 0) | (pea.slow() ? 2 : 0));
+                out.writeDouble(pea.slowFactor());
+                out.writeLong(pea.slowDurationMs());
+            }
+            out.writeByte(Yard.ROWS);
+            for (int row = 0; row < Yard.ROWS; row++) {
+                out.writeByte(mowerStates[row]);
+                out.writeDouble(mowerX[row]);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Read a snapshot written by {@link #encode()}; returns null if it is damaged or from another version. */
+    public static YardSnapshot decode(byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length - 4);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION || in.getInt(data.length - 4) != (int) crc.getValue()) {
+                return null;
+            }
+            YardSnapshot snapshot = new YardSnapshot(in.get());
+            snapshot.sunCounter = in.getInt();
+            snapshot.zombiesKilled = in.getInt();
+            snapshot.sunCollected = in.getInt();
+            snapshot.timeLeft = in.getDouble();
+            snapshot.spawnIntervalSeconds = in.getInt();
+            snapshot.tickCount = in.getLong();
+            snapshot.nextSpawnTick = in.getLong();
+
+            for (int i = in.getShort() & 0xffff; i > 0; i--) {
+                snapshot.plants.add(new PlantState(in.get(), in.get(), in.get(), in.getInt()));
+            }
+            for (int i = in.getShort() & 0xffff; i > 0; i--) {
+                snapshot.zombies.add(new ZombieState(in.get(), in.get(), in.getDouble(), in.getDouble(),
+                        in.getInt(), in.getDouble(), in.getInt()));
+            }
+            for (int i = in.getShort() & 0xffff; i > 0; i--) {
+                int row = in.get(), col = in.get();
+                double x = in.getDouble(), y = in.getDouble();
+                int damage = in.getInt();
+                int flags = in.get();
+                snapshot.peas.add(new PeaState(row, col, x, y, damage, (flags & 1) != 0, (flags & 2) != 0,
+                        in.getDouble(), in.getLong()));
+            }
+            if (in.get() != Yard.ROWS) {
+                return null;
+            }
+            for (int row = 0; row < Yard.ROWS; row++) {
+                snapshot.mowerStates[row] = in.get();
+                snapshot.mowerX[row] = in.getDouble();
+            }
+            for (PlantState plant : snapshot.plants) {
+                if (plant.type() < 0 || plant.type() >= PLANT_TYPES.size() || !onLawn(plant.row(), plant.col())) return null;
+            }
+            for (ZombieState zombie : snapshot.zombies) {
+                if (zombie.type() < 0 || zombie.type() >= ZOMBIE_TYPES.size() || !onLawn(zombie.lane(), 0)) return null;
+            }
+            for (PeaState pea : snapshot.peas) {
+                if (!onLawn(pea.row(), pea.col())) return null;
+            }
+            return snapshot;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /** The saved game for this player and level, or null if there is none (or it can't be read). */
+    public static YardSnapshot load(String username, int levelNumber) {
+        Path file = fileFor(username, levelNumber);
+        if (!Files.exists(file)) return null;
+        try {
+            YardSnapshot snapshot = decode(Files.readAllBytes(file));
+            if (snapshot == null || snapshot.levelNumber != levelNumber) {
+                System.out.println("Ignoring unreadable " + file);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException e) {
+            System.out.println("Could not read " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Write this snapshot as the player's save for its level, replacing any earlier one. */
+    public void save(String username) throws IOException {
+        Path file = fileFor(username, levelNumber);
+        Files.createDirectories(file.getParent());
+        AtomicFiles.write(file, encode());
+    }
+
+    /** Forget the player's save for a level, e.g. once it has been resumed. */
+    public static void delete(String username, int levelNumber) {
+        try {
+            Files.deleteIfExists(fileFor(username, levelNumber));
+        } catch (IOException e) {
+            System.out.println("Could not delete saved game: " + e.getMessage());
+        }
+    }
+
+    private static boolean onLawn(int row, int col) {
+        return row >= 0 && row < Yard.ROWS && col >= 0 && col < Yard.COLUMNS;
+    }
+
+    private static Path fileFor(String username, int levelNumber) {
+        return DIR.resolve(fileName(username, levelNumber));
+    }
+
+    // Usernames go into file names: letters and digits as they are, anything else as _hex_, so
+    // names stay distinct and safe on every file system
+    static String fileName(String username, int levelNumber) {
+        String user = username == null || username.isBlank() ? "Player" : username;
+        StringBuilder name = new StringBuilder(user.length() + 16);
+        user.codePoints().forEach(c -> {
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                name.appendCodePoint(c);
+            } else {
+                name.append('_').append(Integer.toHexString(c)).append('_');
+            }
+        });
+        return name.append("-level").append(levelNumber).append(".bin").toString();
+    }
+}
@@ -4,23 +4,25 @@ import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.PauseTransition;
 import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.scene.effect.ColorAdjust;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
-import javafx.scene.media.Media;
-import pvz.util.AssetLoader;
-import javafx.scene.media.MediaPlayer;
 import javafx.util.Duration;
 
+/**
+ * A zombie: its type's stats and sprites, and a view on its row in the world's {@link ZombieStore},
+ * where the tick keeps its position, health, speed and timers. Until it is added to a world (and
+ * again once it has been removed) it keeps those values in its own fields.
+ */
 public abstract class Zombie extends Characters implements Runnable {
-
     protected int attackPower;
-    protected double speed;
+    // Used while the zombie isn't in a store
+    private double speed;
     private double baseSpeed;
-    private volatile boolean isAttacking = false;
-    private volatile boolean slowed = false;
-    private PauseTransition slowReset;
+    private boolean slowed;
+    private int lane;
+
+    private transient ZombieStore store;
+    private transient int storeRow = -1;
 
     public Zombie() {
     }
@@ -32,21 +34,73 @@ public abstract class Zombie extends Characters implements Runnable {
         this.health = health;
     }
 
+    ZombieStore getStore() {
+        return store;
+    }
+
+    int getStoreRow() {
+        return storeRow;
+    }
+
+    void attach(ZombieStore store, int row) {
+        this.store = store;
+        this.storeRow = row;
+    }
+
+    // Take the row's values back when leaving the store
+    void detach(double x, double y, double width, double height, int health, double speed, double baseSpeed, int lane) {
+        store = null;
+        storeRow = -1;
+        posX = x;
+        posY = y;
+        this.width = width;
+        this.height = height;
+        this.health = health;
+        this.speed = speed;
+        this.baseSpeed = baseSpeed;
+        this.lane = lane;
+        slowed = false;
+    }
+
     public boolean isSlowed() {
-        return slowed;
+        return store != null ? (store.state[storeRow] & ZombieStore.SLOWED) != 0 : slowed;
     }
 
     public void setSlowed(boolean slowed) {
-        this.slowed = slowed;
+        if (store == null) {
+            this.slowed = slowed;
+        } else if (slowed) {
+            store.state[storeRow] |= ZombieStore.SLOWED;
+        } else {
+            store.state[storeRow] &= ~ZombieStore.SLOWED;
+        }
+    }
+
+    /** Yard row this zombie walks in. */
+    public int getLane() {
+        return store != null ? store.lane[storeRow] : lane;
+    }
+
+    public void setLane(int lane) {
+        if (store != null) {
+            store.lane[storeRow] = lane;
+        } else {
+            this.lane = lane;
+        }
     }
 
     public double getBaseSpeed() {
-        return baseSpeed;
+        return store != null ? store.baseSpeed[storeRow] : baseSpeed;
     }
 
     public void setBaseSpeed(double baseSpeed) {
-        this.baseSpeed = baseSpeed;
-        this.speed = baseSpeed;
+        if (store != null) {
+            store.baseSpeed[storeRow] = baseSpeed;
+            store.speed[storeRow] = baseSpeed;
+        } else {
+            this.baseSpeed = baseSpeed;
+            this.speed = baseSpeed;
+        }
     }
 
     public double getAttackPower() {
@@ -58,91 +112,154 @@ public abstract class Zombie extends Characters implements Runnable {
     }
 
     public double getSpeed() {
-        return speed;
+        return store != null ? store.speed[storeRow] : speed;
     }
 
     public void setSpeed(double speed) {
-        this.speed = speed;
+        if (store != null) {
+            store.speed[storeRow] = speed;
+        } else {
+            this.speed = speed;
+        }
     }
 
-    public boolean isColliding(ImageView object) {
-        double margin = 50;
-        var zombieBounds = elementImage.getBoundsInParent();
-        var objectBounds = object.getBoundsInParent();
-        var adjustedZombieBounds = new javafx.geometry.BoundingBox(
-                zombieBounds.getMinX() + margin,
-                zombieBounds.getMinY() + margin,
-                zombieBounds.getWidth() - 2 * margin,
-                zombieBounds.getHeight() - 2 * margin
-        );
-        return adjustedZombieBounds.intersects(objectBounds);
+    @Override
+    public int getHealth() {
+        return store != null ? store.health[storeRow] : health;
     }
 
-    public Plant checkForPlantCollision() {
-        synchronized (Yard.plants) {
-            for (Plant plant : Yard.plants) {
-                if (isColliding(plant.elementImage)) {
-                    return plant;
-                }
-            }
+    @Override
+    public void setHealth(int health) {
+        if (store != null) {
+            store.health[storeRow] = health;
+        } else {
+            this.health = health;
         }
-        return null;
     }
 
-    public synchronized void move() {
-        if (!isAlive() || isAttacking) {
-            return;
+    @Override
+    public double getPosX() {
+        return store != null ? store.x[storeRow] : posX;
+    }
+
+    @Override
+    public double getPosY() {
+        return store != null ? store.y[storeRow] : posY;
+    }
+
+    @Override
+    public double getWidth() {
+        return store != null ? store.width[storeRow] : width;
+    }
+
+    @Override
+    public double getHeight() {
+        return store != null ? store.height[storeRow] : height;
+    }
+
+    @Override
+    public void setPosition(double x, double y) {
+        if (store != null) {
+            store.x[storeRow] = x;
+            store.y[storeRow] = y;
+            syncView();
+        } else {
+            super.setPosition(x, y);
         }
-        if (!Yard.gameOn) {
-            return;
+    }
+
+    @Override
+    public void moveBy(double dx) {
+        if (store != null) {
+            store.x[storeRow] += dx;
+        } else {
+            super.moveBy(dx);
         }
-        Plant targetPlant = checkForPlantCollision();
-        if (targetPlant != null && targetPlant.isAlive()) {
-            attack(targetPlant);
+    }
+
+    @Override
+    protected void setSize(double width, double height) {
+        if (store != null) {
+            store.width[storeRow] = width;
+            store.height[storeRow] = height;
         } else {
-            Platform.runLater(() -> {
-                elementImage.setLayoutX(elementImage.getLayoutX() - speed);
-            });
-            if (elementImage.getLayoutX() <= -elementImage.getFitWidth()) {
-                Yard.gameOver();
-            }
-            try {
-                Thread.sleep(1);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            super.setSize(width, height);
+        }
+    }
+
+    @Override
+    public void syncView() {
+        if (elementImage != null) {
+            elementImage.setLayoutX(getPosX());
+            elementImage.setLayoutY(getPosY());
         }
     }
 
-    public synchronized void applySlow(double factor, long durationMs) {
+    /** Overlap test with a 50 px margin trimmed off the zombie, so it bites only once it reaches the plant. */
+    public boolean isColliding(Characters object) {
+        return store != null ? store.bites(storeRow, object) : overlaps(object, ZombieStore.BITE_INSET);
+    }
+
+    /** The plant this zombie would start biting now, or null; always null before it is in a world. */
+    public Plant checkForPlantCollision() {
+        return store != null ? store.findPlant(storeRow) : null;
+    }
+
+    /** Ticks until a slow wears off, or 0 if the zombie isn't slowed. */
+    int getSlowTicksLeft() {
+        return store != null ? store.effectTicksLeft(storeRow, ZombieStore.SLOW) : 0;
+    }
+
+    /** Put back a saved speed and slow timer once the zombie is in its world; see {@link YardSnapshot}. */
+    void restoreSlow(double speed, int ticksLeft) {
+        setSpeed(speed);
+        if (store == null) {
+            return;
+        }
+        if (ticksLeft > 0) {
+            store.applyEffect(storeRow, ZombieStore.SLOW, world.getTickCount() + ticksLeft);
+        }
+    }
+
+    public void applySlow(double factor, long durationMs) {
         if (factor <= 0 || factor >= 1) {
             factor = 0.5; // default slow factor
         }
         if (durationMs <= 0) {
             durationMs = 3000; // default slow time in ms
         }
-
-        double slowedSpeed = baseSpeed * factor;
-        setSlowed(true);
-        setSpeed(slowedSpeed);
-
-        if (slowReset != null) {
-            slowReset.stop();
+        if (store == null) {
+            setSpeed(getBaseSpeed() * factor);
+            return;
         }
-
-        PauseTransition reset = new PauseTransition(Duration.millis(durationMs));
-        reset.setOnFinished(event -> {
-            setSpeed(baseSpeed);
-            setSlowed(false);
-        });
-        slowReset = reset;
-        Platform.runLater(reset::play);
+        // Worn off by the store's timer wheel; a fresh hit restarts the timer
+        long ticks = Math.max(1, durationMs * GameLoop.TICKS_PER_SECOND / 1000);
+        store.slow(storeRow, factor, world.getTickCount() + ticks);
     }
 
     @Override
     public void takeDamage(int damage) {
-        health -= damage;
-        System.out.println("Zombie takes damage: " + damage + " Health: " + health);
+        int health = getHealth() - damage;
+        setHealth(health);
+        world.getEvents().publish(GameEvents.Type.ZOMBIE_HIT, this, getLane(), damage);
+        if (health <= 0) {
+            if (isAlive()) {
+                world.countZombieKilled(); // a second hit in the same tick doesn't count twice
+                world.getEvents().publish(GameEvents.Type.ZOMBIE_KILLED, this, getLane(), 0);
+            }
+            setAlive(false);
+            world.removeZombie(this);
+            world.post(() -> {
+                disappear(world.getRoot());
+            });
+        }
+    }
+
+    /** Flash bright for a moment, as a zombie does when it is hit; FX thread only. */
+    public void flash() {
+        if (elementImage == null) {
+            return;
+        }
         ColorAdjust colorAdjust = new ColorAdjust();
         colorAdjust.setBrightness(0.5);
         elementImage.setEffect(colorAdjust);
@@ -153,84 +270,30 @@ public abstract class Zombie extends Characters implements Runnable {
         );
         timeline.setCycleCount(1);
         timeline.play();
-        if (health <= 0) {
-            setAlive(false);
-            synchronized (Yard.zombies) {
-                Yard.zombies.remove(this);
-            }
-            Platform.runLater(() -> {
-                disappear(Yard.root);
-            });
-        }
     }
 
-    private void attack(Plant targetPlant) {
-        if (isAttacking) {
-            return;
-        }
-        isAttacking = true;
-        zombieEatingAudio();
-        double originalSpeed = this.getSpeed();
-        setSpeed(0);
-        if (this instanceof FootballZombie) {
-            elementImage.setImage(AssetLoader.loadImage("images/zombies/FootballZombieAttack.gif"));
-            elementImage.setFitWidth(120);
-            elementImage.setFitHeight(125);
-            elementImage.setPreserveRatio(true);
-        } else if (this instanceof ConeZombie) {
-            elementImage.setImage(AssetLoader.loadImage("images/zombies/ConeheadZombieAttack.gif"));
-            elementImage.setFitHeight(155);
-            elementImage.setFitWidth(134);
-            elementImage.setPreserveRatio(true);
+    /** Switch to the eating sprite, or back to walking; called by the store's tick. */
+    void showAttacking(boolean attacking) {
+        if (attacking) {
+            zombieEatingAudio();
+            if (this instanceof FootballZombie) {
+                changeSprite("images/zombies/FootballZombieAttack.gif", 120, 125);
+            } else if (this instanceof ConeZombie) {
+                changeSprite("images/zombies/ConeheadZombieAttack.gif", 134, 155);
+            } else if (this instanceof DefaultZombie) {
+                changeSprite("images/zombies/ZombieAttack.gif", 134, 155);
+            } else if (this instanceof HelmetZombie) {
+                changeSprite("images/zombies/BucketheadZombieAttack.gif", 134, 155);
+            }
+        } else if (this instanceof FootballZombie) {
+            changeSprite("images/zombies/FootballZombie.gif", 120, 125);
         } else if (this instanceof DefaultZombie) {
-            elementImage.setImage(AssetLoader.loadImage("images/zombies/ZombieAttack.gif"));
-            elementImage.setFitHeight(155);
-            elementImage.setFitWidth(134);
-            elementImage.setPreserveRatio(true);
+            changeSprite("images/zombies/Zombie.gif", 134, 155);
+        } else if (this instanceof ConeZombie) {
+            changeSprite("images/zombies/ConeZombie.gif", 134, 155);
         } else if (this instanceof HelmetZombie) {
-            elementImage.setImage(AssetLoader.loadImage("images/zombies/BucketheadZombieAttack.gif"));
-            elementImage.setFitHeight(155);
-            elementImage.setFitWidth(134);
-            elementImage.setPreserveRatio(true);
+            changeSprite("images/zombies/BucketheadZombie.gif", 134, 155);
         }
-        Thread attackThread = new Thread(() -> {
-            try {
-                while (isAlive() && targetPlant.isAlive() && isColliding(targetPlant.elementImage)) {
-                    targetPlant.takeDamage(attackPower);
-                    Thread.sleep(2000);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            } finally {
-                isAttacking = false;
-                Platform.runLater(() -> {
-                    if (this instanceof FootballZombie && this.isAlive()) {
-                        elementImage.setImage(AssetLoader.loadImage("images/zombies/FootballZombie.gif"));
-                        elementImage.setFitWidth(120);
-                        elementImage.setFitHeight(125);
-                        elementImage.setPreserveRatio(true);
-                    } else if (this instanceof DefaultZombie && this.isAlive()) {
-                        elementImage.setImage(AssetLoader.loadImage("images/zombies/Zombie.gif"));
-                        elementImage.setFitHeight(155);
-                        elementImage.setFitWidth(134);
-                        elementImage.setPreserveRatio(true);
-                    } else if (this instanceof ConeZombie && this.isAlive()) {
-                        elementImage.setImage(AssetLoader.loadImage("images/zombies/ConeZombie.gif"));
-                        elementImage.setFitHeight(155);
-                        elementImage.setFitWidth(134);
-                        elementImage.setPreserveRatio(true);
-                    } else if (this instanceof HelmetZombie && this.isAlive()) {
-                        elementImage.setImage(AssetLoader.loadImage("images/zombies/BucketheadZombie.gif"));
-                        elementImage.setFitHeight(155);
-                        elementImage.setFitWidth(134);
-                        elementImage.setPreserveRatio(true);
-                    }
-                });
-                setSpeed(originalSpeed);
-            }
-        });
-        attackThread.setDaemon(true);
-        attackThread.start();
     }
 
     @Override
@@ -238,27 +301,25 @@ public abstract class Zombie extends Characters implements Runnable {
         // Default no-op implementation. Specific spawning uses appear(root, x, y).
     }
 
+    /** Place the zombie at its spawn point and, on screen, add its sprite; call on the FX thread. */
     public void appear(Pane root, int x, int y) {
-        Platform.runLater(() -> {
-            elementImage.setLayoutX(x);
-            elementImage.setLayoutY(y);
+        // Position before the node is attached so the first tick already sees the spawn point.
+        setPosition(x, y);
+        if (elementImage != null && root != null) {
             root.getChildren().add(elementImage);
-        });
+        }
         setAlive(true);
     }
 
     @Override
     public void disappear(Pane root) {
+        if (elementImage == null || root == null) {
+            return;
+        }
         if (this instanceof FootballZombie) {
-            elementImage.setImage(AssetLoader.loadImage("images/zombies/FootballZombieDie.gif"));
-            elementImage.setFitWidth(134);
-            elementImage.setFitHeight(150);
-            elementImage.setPreserveRatio(true);
+            changeSprite("images/zombies/FootballZombieDie.gif", 134, 150);
         } else {
-            elementImage.setImage(AssetLoader.loadImage("images/zombies/ZombieDie.gif"));
-            elementImage.setFitHeight(155);
-            elementImage.setFitWidth(134);
-            elementImage.setPreserveRatio(true);
+            changeSprite("images/zombies/ZombieDie.gif", 134, 155);
         }
         double gifDurationInSeconds = (this instanceof FootballZombie) ? 0.8 : 1.6;
         PauseTransition pause = new PauseTransition(Duration.seconds(gifDurationInSeconds));
@@ -269,21 +330,11 @@ public abstract class Zombie extends Characters implements Runnable {
     }
 
     public void zombieEatingAudio() {
-        try {
-            String path = getClass().getResource("/pvz/music/zombie eating.mp3").toExternalForm();
-            Media media = new Media(path);
-            MediaPlayer mediaPlayer = new MediaPlayer(media);
-            mediaPlayer.setVolume(0.3);
-            javafx.application.Platform.runLater(() -> mediaPlayer.play());
-        } catch (Exception e) {
-            System.out.println("Error playing zombie eating sound: " + e.getMessage());
-        }
+        world.playSound("/pvz/music/zombie eating.mp3", 0.3);
     }
 
     @Override
     public void run() {
-        while (isAlive() && !Thread.currentThread().isInterrupted()) {
-            move();
-        }
+        // Zombies are advanced by the yard's GameLoop through the world's ZombieStore.
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package pvz.model;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * The level's zombie schedule (see {@link LevelRules}), counted in world ticks. Pending spawns wait
+ * in a priority queue by the tick they are due; {@link #tick()} runs once per tick before the world
+ * steps and lets in whatever has come due. There is always one regular spawn queued, which queues
+ * the next when it fires, and one marker for the next huge wave, which publishes
+ * {@link GameEvents.Type#HUGE_WAVE} and queues the wave's zombies spread over its burst.
+ *
+ * Shared by {@link Yard} and {@link HeadlessSimulation}, and drawing only from the world's gameplay
+ * random stream, so the same seed spawns the same zombies at the same ticks on screen and off.
+ */
+final class ZombieSpawner {
+    private enum Kind { REGULAR, WAVE, BURST }
+
+    // Due is the tick count the world reaches with the step the spawn happens on; seq breaks ties in queue order
+    private record Pending(long due, long seq, Kind kind, int wave) implements Comparable<Pending> {
+        @Override
+        public int compareTo(Pending other) {
+            int byTick = Long.compare(due, other.due);
+            return byTick != 0 ? byTick : Long.compare(seq, other.seq);
+        }
+    }
+
+    private final World world;
+    private final LevelRules rules;
+    private final PriorityQueue<Pending> pending = new PriorityQueue<>();
+    private long seq;
+    private int intervalSeconds;
+    private long nextRegularTick;
+    private int spawned;
+
+    ZombieSpawner(World world, LevelRules rules) {
+        this.world = world;
+        this.rules = rules;
+        restore(rules.getInitialSpawnIntervalSeconds(), (long) rules.getInitialSpawnIntervalSeconds() * GameLoop.TICKS_PER_SECOND);
+    }
+
+    /** Let in everything due on the coming step; returns how many zombies spawned. */
+    int tick() {
+        long now = world.getTickCount() + 1;
+        int count = 0;
+        while (!pending.isEmpty() && pending.peek().due() <= now) {
+            Pending next = pending.poll();
+            switch (next.kind()) {
+                case REGULAR -> {
+                    spawn();
+                    count++;
+                    // Decrease the spawn interval dynamically over time played
+                    long elapsedMillis = world.getTickCount() * 1000L / GameLoop.TICKS_PER_SECOND;
+                    intervalSeconds = rules.nextSpawnInterval(intervalSeconds, elapsedMillis);
+                    queueRegular(now + (long) intervalSeconds * GameLoop.TICKS_PER_SECOND);
+                }
+                case WAVE -> {
+                    world.getEvents().publish(GameEvents.Type.HUGE_WAVE, null, -1, wave(next.wave()).count());
+                    queueBurst(next.wave(), next.due(), now);
+                    queueWave(next.wave() + 1);
+                }
+                case BURST -> {
+                    spawn();
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void spawn() {
+        Random random = world.getRandom().gameplay();
+        int lane = rules.pickLane(random);
+        int y = Yard.ZOMBIE_LANE_Y[lane];
+        int x = random.nextInt((LevelRules.SPAWN_MAX_X - LevelRules.SPAWN_MIN_X) + 1) + LevelRules.SPAWN_MIN_X;
+        Zombie zombie = rules.createZombie(world, x, y, random);
+        zombie.setLane(lane);
+        zombie.appear(world.getRoot(), x, y);
+        world.addZombie(zombie, lane);
+        world.getEvents().publish(GameEvents.Type.ZOMBIE_SPAWNED, zombie, lane, 0);
+        spawned++;
+    }
+
+    private void queueRegular(long due) {
+        nextRegularTick = due;
+        pending.add(new Pending(due, seq++, Kind.REGULAR, -1));
+    }
+
+    // Wave number n counts the listed waves first, then the repeats of the last one
+    private long waveStart(int n) {
+        List<LevelRules.Wave> waves = rules.getWaves();
+        if (waves.isEmpty() || (n >= waves.size() && rules.getWaveEverySeconds() <= 0)) {
+            return -1;
+        }
+        int listed = Math.min(n, waves.size() - 1);
+        long seconds = waves.get(listed).atSecond() + (long) (n - listed) * rules.getWaveEverySeconds();
+        return seconds * GameLoop.TICKS_PER_SECOND;
+    }
+
+    private LevelRules.Wave wave(int n) {
+        List<LevelRules.Wave> waves = rules.getWaves();
+        return waves.get(Math.min(n, waves.size() - 1));
+    }
+
+    private void queueWave(int n) {
+        long start = waveStart(n);
+        if (start >= 0) {
+            pending.add(new Pending(start, seq++, Kind.WAVE, n));
+        }
+    }
+
+    // The wave's zombies, evenly spaced over its burst; only those still to come after `after`
+    private void queueBurst(int n, long start, long after) {
+        LevelRules.Wave wave = wave(n);
+        long spreadTicks = (long) wave.spreadSeconds() * GameLoop.TICKS_PER_SECOND;
+        for (int i = 0; i < wave.count(); i++) {
+            long due = start + spreadTicks * i / wave.count();
+            if (due >= after) {
+                pending.add(new Pending(due, seq++, Kind.BURST, n));
+            }
+        }
+    }
+
+    int getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    /** Tick count the world reaches with the step that brings in the next regular zombie. */
+    long getNextSpawnTick() {
+        return nextRegularTick;
+    }
+
+    int getSpawned() {
+        return spawned;
+    }
+
+    /**
+     * Carry on a saved game's schedule from the world's current tick count: the regular spawns at
+     * their saved interval, and the huge waves from where the clock is, including the rest of a
+     * burst that was under way.
+     */
+    void restore(int intervalSeconds, long nextSpawnTick) {
+        long now = world.getTickCount();
+        pending.clear();
+        this.intervalSeconds = intervalSeconds;
+        queueRegular(Math.max(now + 1, nextSpawnTick));
+        int n = 0;
+        for (long start = waveStart(n); start >= 0 && start <= now; start = waveStart(++n)) {
+            queueBurst(n, start, now + 1);
+        }
+        queueWave(n);
+    }
+}
@@ -0,0 +1,305 @@
+package pvz.model;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * The state the tick reads and writes for every zombie in a {@link World}, kept as one primitive
+ * array per field (position, hitbox, lane, health, speed, bite timer) rather than on the zombie
+ * objects, with their status effects as timers in a {@link TimerWheel}. {@link #step()} walks the
+ * rows in order, so moving, biting and the lawn mower checks go through a few flat arrays instead
+ * of chasing a reference per zombie.
+ *
+ * A {@link Zombie} is a view on its row: its getters and setters read and write the arrays while it
+ * is in the store, and its own fields hold the values before it is added and after it is removed,
+ * so a zombie can be set up before it spawns and still has its last position while it dies.
+ *
+ * Rows keep the order zombies were added in, which is the order they have always moved in, so a
+ * seed replays the same game. Removing a zombie leaves a hole that {@link #compact()} squeezes
+ * out after the step. Simulation thread only, like {@link ProjectilePool}.
+ */
+public final class ZombieStore {
+    static final int ATTACKING = 1;
+    static final int SLOWED = 2;
+
+    // Status effects; each row has one timer per effect in the wheel, id row * EFFECTS + effect
+    static final int SLOW = 0;
+    private static final int EFFECTS = 1;
+    private static final int[] EFFECT_FLAGS = {SLOWED};
+
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int MIN_HOLES_TO_COMPACT = 16;
+    private static final double STEPS_PER_TICK = GameLoop.TICK_SECONDS / 0.02;
+    private static final int ATTACK_INTERVAL_TICKS = 2 * GameLoop.TICKS_PER_SECOND;
+    // Trimmed off the zombie's hitbox so it bites only once it reaches the plant
+    static final double BITE_INSET = 50;
+
+    private final World world;
+
+    Zombie[] views = new Zombie[INITIAL_CAPACITY];
+    double[] x = new double[INITIAL_CAPACITY];
+    double[] y = new double[INITIAL_CAPACITY];
+    double[] width = new double[INITIAL_CAPACITY];
+    double[] height = new double[INITIAL_CAPACITY];
+    double[] speed = new double[INITIAL_CAPACITY];
+    double[] baseSpeed = new double[INITIAL_CAPACITY];
+    int[] lane = new int[INITIAL_CAPACITY];
+    int[] health = new int[INITIAL_CAPACITY];
+    int[] state = new int[INITIAL_CAPACITY];
+    int[] attackCooldown = new int[INITIAL_CAPACITY];
+    long[] attackTarget = new long[INITIAL_CAPACITY];    // registry id of the plant being eaten
+
+    private int end;    // rows [0, end) have been used
+    private int live;
+
+    // Row the plant lookup is testing against; saves a capturing lambda per zombie per tick
+    private int probeRow;
+    private final Predicate<Plant> bitesProbe = plant -> bites(probeRow, plant);
+
+    // Wears off effects on the tick they run out, however often they are refreshed
+    private final TimerWheel effects = new TimerWheel(INITIAL_CAPACITY * EFFECTS, this::effectExpired);
+
+    ZombieStore(World world) {
+        this.world = world;
+    }
+
+    /** Number of zombies in the store. */
+    public int size() {
+        return live;
+    }
+
+    /** Give the zombie a row, filled from its own fields. */
+    void add(Zombie zombie) {
+        if (end == views.length) {
+            grow();
+        }
+        int row = end++;
+        views[row] = zombie;
+        // Not attached yet, so the getters still read the zombie's own fields
+        x[row] = zombie.getPosX();
+        y[row] = zombie.getPosY();
+        width[row] = zombie.getWidth();
+        height[row] = zombie.getHeight();
+        speed[row] = zombie.getSpeed();
+        baseSpeed[row] = zombie.getBaseSpeed();
+        lane[row] = zombie.getLane();
+        health[row] = zombie.getHealth();
+        state[row] = 0;
+        attackCooldown[row] = 0;
+        attackTarget[row] = 0;
+        zombie.attach(this, row);
+        live++;
+    }
+
+    /** Hand the zombie its row's values back and free the row. */
+    void remove(Zombie zombie) {
+        int row = zombie.getStoreRow();
+        if (zombie.getStore() != this || row < 0 || views[row] != zombie) {
+            return;
+        }
+        detach(row);
+        live--;
+    }
+
+    /** Squeeze out the rows of removed zombies, keeping the order; not during {@link #step()}. */
+    void compact() {
+        int holes = end - live;
+        if (holes < MIN_HOLES_TO_COMPACT || holes * 2 < end) {
+            return;
+        }
+        int next = 0;
+        for (int row = 0; row < end; row++) {
+            Zombie zombie = views[row];
+            if (zombie == null) {
+                continue;
+            }
+            if (row != next) {
+                views[next] = zombie;
+                x[next] = x[row];
+                y[next] = y[row];
+                width[next] = width[row];
+                height[next] = height[row];
+                speed[next] = speed[row];
+                baseSpeed[next] = baseSpeed[row];
+                lane[next] = lane[row];
+                health[next] = health[row];
+                state[next] = state[row];
+                attackCooldown[next] = attackCooldown[row];
+                attackTarget[next] = attackTarget[row];
+                for (int effect = 0; effect < EFFECTS; effect++) {
+                    long until = effects.getDeadline(row * EFFECTS + effect);
+                    if (until != 0) {
+                        effects.cancel(row * EFFECTS + effect);
+                        effects.schedule(next * EFFECTS + effect, until);
+                    }
+                }
+                zombie.attach(this, next);
+            }
+            next++;
+        }
+        Arrays.fill(views, next, end, null);
+        end = next;
+    }
+
+    /** Detach every zombie, leaving each with its last values. */
+    void clear() {
+        for (int row = 0; row < end; row++) {
+            if (views[row] != null) {
+                detach(row);
+            }
+        }
+        effects.clear();
+        end = 0;
+        live = 0;
+    }
+
+    /**
+     * Advance every zombie by one tick, in the order they were added: keep biting, start biting or
+     * walk, then check the row's lawn mower. Effects that run out this tick wear off first. Stops
+     * as soon as the game is over.
+     */
+    void step() {
+        effects.advance(world.getTickCount());
+        int limit = end;
+        for (int row = 0; row < limit && row < end; row++) {
+            Zombie zombie = views[row];
+            if (zombie == null) {
+                continue;
+            }
+            tick(row, zombie);
+            if (!world.isGameOn()) {
+                break;
+            }
+            world.checkLawnMowers(zombie);
+        }
+    }
+
+    /** Advance the zombie in this row by one tick. */
+    void tick(int row, Zombie zombie) {
+        if (!zombie.isAlive() || !world.isGameOn()) {
+            return;
+        }
+        if ((state[row] & ATTACKING) != 0) {
+            continueAttack(row, zombie);
+            return;
+        }
+        Plant target = findPlant(row);
+        if (target != null && target.isAlive()) {
+            state[row] |= ATTACKING;
+            attackTarget[row] = target.getEntityId();
+            attackCooldown[row] = 0;
+            zombie.showAttacking(true);
+            continueAttack(row, zombie);
+        } else {
+            // speed is expressed in pixels per 20 ms step; scale it to the fixed tick length
+            x[row] -= speed[row] * STEPS_PER_TICK;
+            if (x[row] <= -width[row]) {
+                world.gameOver();
+            }
+        }
+    }
+
+    /** The left-most plant in the row's lane close enough to bite, or null. */
+    Plant findPlant(int row) {
+        probeRow = row;
+        return world.getPlantLanes().first(lane[row], x[row] - Yard.MAX_PLANT_WIDTH, x[row] + width[row], bitesProbe);
+    }
+
+    /** Hitbox overlap test with {@link #BITE_INSET} trimmed off the zombie's side. */
+    boolean bites(int row, Characters plant) {
+        double left = x[row] + BITE_INSET;
+        double top = y[row] + BITE_INSET;
+        double right = x[row] + width[row] - BITE_INSET;
+        double bottom = y[row] + height[row] - BITE_INSET;
+        double plantX = plant.getPosX();
+        double plantY = plant.getPosY();
+        return right > left && bottom > top
+                && left < plantX + plant.getWidth() && right > plantX
+                && top < plantY + plant.getHeight() && bottom > plantY;
+    }
+
+    /**
+     * Put an effect on the zombie in this row until the given tick. Different effects stack; the
+     * same effect again just moves its end.
+     */
+    void applyEffect(int row, int effect, long untilTick) {
+        state[row] |= EFFECT_FLAGS[effect];
+        effects.schedule(row * EFFECTS + effect, untilTick);
+    }
+
+    /** Ticks until the effect wears off the zombie in this row, or 0 if it doesn't have it. */
+    int effectTicksLeft(int row, int effect) {
+        long until = effects.getDeadline(row * EFFECTS + effect);
+        return until == 0 ? 0 : (int) Math.max(0, until - world.getTickCount());
+    }
+
+    /** Slow the zombie in this row to {@code factor} of its base speed until the given tick. */
+    void slow(int row, double factor, long untilTick) {
+        speed[row] = baseSpeed[row] * factor;
+        applyEffect(row, SLOW, untilTick);
+    }
+
+    private void effectExpired(int id) {
+        int row = id / EFFECTS;
+        int effect = id % EFFECTS;
+        state[row] &= ~EFFECT_FLAGS[effect];
+        if (effect == SLOW) {
+            speed[row] = baseSpeed[row];
+        }
+    }
+
+    /** Copy every zombie's position onto its sprite; called once per frame. */
+    void syncViews() {
+        for (int row = 0; row < end; row++) {
+            Zombie zombie = views[row];
+            if (zombie != null) {
+                zombie.syncView();
+            }
+        }
+    }
+
+    // Bite the current target every ATTACK_INTERVAL_TICKS until it dies or stops overlapping
+    private void continueAttack(int row, Zombie zombie) {
+        Plant target = world.getPlants().get(attackTarget[row]);
+        if (target == null || !target.isAlive() || !bites(row, target)) {
+            state[row] &= ~ATTACKING;
+            attackTarget[row] = 0;
+            if (zombie.isAlive()) {
+                zombie.showAttacking(false);
+            }
+            return;
+        }
+        if (attackCooldown[row] > 0) {
+            attackCooldown[row]--;
+            return;
+        }
+        target.takeDamage(zombie.attackPower);
+        attackCooldown[row] = ATTACK_INTERVAL_TICKS;
+    }
+
+    private void detach(int row) {
+        for (int effect = 0; effect < EFFECTS; effect++) {
+            effects.cancel(row * EFFECTS + effect);
+        }
+        Zombie zombie = views[row];
+        zombie.detach(x[row], y[row], width[row], height[row], health[row], speed[row], baseSpeed[row], lane[row]);
+        views[row] = null;
+    }
+
+    private void grow() {
+        int capacity = views.length * 2;
+        views = Arrays.copyOf(views, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        baseSpeed = Arrays.copyOf(baseSpeed, capacity);
+        lane = Arrays.copyOf(lane, capacity);
+        health = Arrays.copyOf(health, capacity);
+        state = Arrays.copyOf(state, capacity);
+        attackCooldown = Arrays.copyOf(attackCooldown, capacity);
+        attackTarget = Arrays.copyOf(attackTarget, capacity);
+        effects.ensureCapacity(capacity * EFFECTS);
+    }
+}
@@ -0,0 +1,132 @@
+package pvz.ui;
+
+import java.util.IdentityHashMap;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.BlendMode;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+
+/**
+ * Draws a yard's playfield on canvases instead of giving every zombie, plant, pea and mower its
+ * own node in the scene: a background layer drawn once, and a sprite layer cleared and redrawn
+ * every frame. The cards, sun counter, falling sun and menus stay ordinary nodes above them, since
+ * they take clicks; that UI layer doesn't grow with the number of zombies, so the scene keeps the
+ * same handful of nodes however big the wave.
+ *
+ * Entities don't know about any of this. They keep adding their ImageViews to the world's root,
+ * which in this mode is {@link #getSpriteHost()}, a pane that is never shown. The views there still
+ * carry each sprite's image, position, size, viewport, scale, opacity and effect, and transitions
+ * on them still run; {@link #render()} reads them in child order and paints them onto the canvas.
+ * Sprites of the same type share one decoded image, so the canvas draws from a few textures.
+ *
+ * Zombie hit flashes are drawn by the renderer too (see {@link #flash}), as a brightening pass
+ * that fades out over a few frames, rather than an effect and a timeline on the node per hit.
+ *
+ * Chosen with -Dpvz.renderer=canvas; the default is the scene-graph renderer. FX thread only.
+ */
+public final class CanvasRenderer {
+    private static final long FLASH_NANOS = 200_000_000L; // as long as the scene-graph flash
+    private static final double FLASH_BRIGHTNESS = 0.5;
+
+    private final Pane spriteHost = new Pane();
+    private final Canvas spriteLayer;
+    private final GraphicsContext gc;
+    // Sprite -> System.nanoTime() its flash ends
+    private final IdentityHashMap<Node, Long> flashes = new IdentityHashMap<>();
+
+    public CanvasRenderer(double width, double height) {
+        spriteLayer = new Canvas(width, height);
+        spriteLayer.setMouseTransparent(true);
+        gc = spriteLayer.getGraphicsContext2D();
+    }
+
+    /** Whether the canvas renderer was asked for on the command line. */
+    public static boolean isRequested() {
+        return "canvas".equalsIgnoreCase(System.getProperty("pvz.renderer"));
+    }
+
+    /** The pane entities put their sprites on; give it to the world as its root. */
+    public Pane getSpriteHost() {
+        return spriteHost;
+    }
+
+    /** The canvas the sprites are drawn on; goes above the background and below the UI. */
+    public Canvas getSpriteLayer() {
+        return spriteLayer;
+    }
+
+    /** A canvas covering the given area with the image drawn on it once, to stand in for a background ImageView. */
+    public static Canvas createBackgroundLayer(Image image, double x, double y, double width, double height) {
+        Canvas background = new Canvas(width, height);
+        background.setLayoutX(x);
+        background.setLayoutY(y);
+        background.setMouseTransparent(true);
+        background.getGraphicsContext2D().drawImage(image, 0, 0, width, height);
+        return background;
+    }
+
+    /** Brighten the sprite for a moment, fading back over the next frames. */
+    public void flash(ImageView sprite) {
+        if (sprite != null) {
+            flashes.put(sprite, System.nanoTime() + FLASH_NANOS);
+        }
+    }
+
+    /** Repaint the sprite layer from the sprites' current state; once per frame. */
+    public void render() {
+        long now = System.nanoTime();
+        gc.clearRect(0, 0, spriteLayer.getWidth(), spriteLayer.getHeight());
+        if (!flashes.isEmpty()) {
+            flashes.values().removeIf(until -> until <= now);
+        }
+        for (Node node : spriteHost.getChildren()) {
+            if (node instanceof ImageView view && view.isVisible() && view.getImage() != null) {
+                draw(view, now);
+            }
+        }
+    }
+
+    private void draw(ImageView view, long now) {
+        Image image = view.getImage();
+        // Layout bounds already account for fit size, ratio and viewport
+        Bounds bounds = view.getLayoutBounds();
+        double w = bounds.getWidth() * view.getScaleX();
+        double h = bounds.getHeight() * view.getScaleY();
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        // Nodes scale about their centre
+        double x = view.getLayoutX() + view.getTranslateX() + bounds.getMinX() + (bounds.getWidth() - w) / 2;
+        double y = view.getLayoutY() + view.getTranslateY() + bounds.getMinY() + (bounds.getHeight() - h) / 2;
+
+        Rectangle2D viewport = view.getViewport();
+        double sx = 0, sy = 0, sw = image.getWidth(), sh = image.getHeight();
+        if (viewport != null) {
+            sx = viewport.getMinX();
+            sy = viewport.getMinY();
+            sw = viewport.getWidth();
+            sh = viewport.getHeight();
+        }
+
+        gc.setGlobalAlpha(view.getOpacity());
+        gc.setEffect(view.getEffect()); // only tinted peas and a glowing sunflower have one
+        gc.drawImage(image, sx, sy, sw, sh, x, y, w, h);
+        gc.setEffect(null);
+
+        Long flashUntil = flashes.get(view);
+        if (flashUntil != null) {
+            // Adding the sprite over itself brightens it; fade the second pass out
+            gc.setGlobalBlendMode(BlendMode.ADD);
+            gc.setGlobalAlpha(view.getOpacity() * FLASH_BRIGHTNESS * (flashUntil - now) / FLASH_NANOS);
+            gc.drawImage(image, sx, sy, sw, sh, x, y, w, h);
+            gc.setGlobalBlendMode(BlendMode.SRC_OVER);
+        }
+        gc.setGlobalAlpha(1);
+    }
+}
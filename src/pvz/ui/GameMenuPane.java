@@ -1,5 +1,6 @@
 package pvz.ui;
 
+import java.util.List;
 import java.util.Objects;
 
 import javafx.geometry.Rectangle2D;
@@ -18,6 +19,7 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
 import pvz.model.AudioSettings;
+import pvz.model.PlayerStats;
 
 public class GameMenuPane extends StackPane {
 
@@ -47,6 +49,7 @@ public class GameMenuPane extends StackPane {
     private final Pane overlayLayer;
     private final ImageView overlayImage;
     private final Label usernameLabel;
+    private final Label statsLabel;
     private final Pane minigamesLayer;
     private final ImageView minigamesView;
     private final ImageView walnutIconView;
@@ -55,6 +58,9 @@ public class GameMenuPane extends StackPane {
     private final CheckBox musicToggle;
     private final Slider musicSlider;
     private final Label musicValueLabel;
+    private final CheckBox effectsToggle;
+    private final Slider effectsSlider;
+    private final Label effectsValueLabel;
 
     private Rectangle2D rPlay;
     private Rectangle2D rOptions;
@@ -124,6 +130,15 @@ public class GameMenuPane extends StackPane {
         usernameLabel.setLayoutY(usernameY - usernameSize);
         baseLayer.getChildren().add(usernameLabel);
 
+        statsLabel = new Label(statsText());
+        statsLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+        statsLabel.setTextFill(Color.WHITE);
+        statsLabel.setStyle("-fx-background-color: rgba(0,0,0,0.35); -fx-background-radius: 6; -fx-padding: 4 8;");
+        statsLabel.setMouseTransparent(true);
+        statsLabel.setLayoutX(usernameX);
+        statsLabel.setLayoutY(usernameY + 8);
+        baseLayer.getChildren().add(statsLabel);
+
         overlayLayer = new Pane();
         overlayLayer.setPrefSize(800, 598);
         overlayLayer.setVisible(false);
@@ -272,8 +287,40 @@ public class GameMenuPane extends StackPane {
         musicValueLabel.setLayoutX(300);
         musicValueLabel.setLayoutY(147);
 
+        effectsToggle = new CheckBox("Enable sound effects");
+        effectsToggle.setFont(Font.font("Arial", FontWeight.SEMI_BOLD, 16));
+        effectsToggle.setTextFill(Color.WHITE);
+        effectsToggle.setLayoutX(24);
+        effectsToggle.setLayoutY(210);
+
+        effectsSlider = new Slider(0, 1, AudioSettings.getEffectsVolume());
+        effectsSlider.setShowTickMarks(true);
+        effectsSlider.setShowTickLabels(true);
+        effectsSlider.setBlockIncrement(0.05);
+        effectsSlider.setMajorTickUnit(0.25);
+        effectsSlider.setMinorTickCount(4);
+        effectsSlider.setLayoutX(24);
+        effectsSlider.setLayoutY(245);
+        effectsSlider.setPrefWidth(260);
+        effectsSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            AudioSettings.setEffectsVolume(newVal.doubleValue());
+            updateEffectsValueLabel();
+        });
+
+        effectsToggle.setOnAction(e -> {
+            AudioSettings.setEffectsEnabled(effectsToggle.isSelected());
+            effectsSlider.setDisable(!effectsToggle.isSelected());
+            updateEffectsValueLabel();
+        });
+
+        effectsValueLabel = new Label();
+        effectsValueLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
+        effectsValueLabel.setTextFill(Color.LIGHTGRAY);
+        effectsValueLabel.setLayoutX(300);
+        effectsValueLabel.setLayoutY(242);
 
         card.getChildren().addAll(musicToggle, volumeLabel, musicSlider, musicValueLabel);
+        card.getChildren().addAll(effectsToggle, effectsSlider, effectsValueLabel);
         optionsLayer.getChildren().addAll(card);
 
         optionsLayer.setOnMouseClicked(e -> {
@@ -371,6 +418,29 @@ public class GameMenuPane extends StackPane {
         usernameLabel.setTextFill(usernameColor);
         usernameLabel.setLayoutX(usernameX);
         usernameLabel.setLayoutY(usernameY - usernameSize);
+        statsLabel.setText(statsText());
+        statsLabel.setLayoutX(usernameX);
+        statsLabel.setLayoutY(usernameY + 8);
+    }
+
+    // The player's totals and standing; every PlayerStats query here is constant-time
+    private String statsText() {
+        PlayerStats stats = PlayerStats.get();
+        StringBuilder text = new StringBuilder()
+                .append("Wins ").append(stats.total(playerUsername, PlayerStats.WINS))
+                .append("  Losses ").append(stats.total(playerUsername, PlayerStats.LOSSES))
+                .append("\nZombies ").append(stats.total(playerUsername, PlayerStats.KILLS))
+                .append("  Sun ").append(stats.total(playerUsername, PlayerStats.SUN));
+        int rank = stats.rank(playerUsername);
+        if (rank > 0) {
+            text.append("\nRank #").append(rank).append(" of ").append(stats.playerCount());
+        }
+        List<PlayerStats.Entry> leaders = stats.leaderboard();
+        if (!leaders.isEmpty() && rank != 1) {
+            PlayerStats.Entry best = leaders.get(0);
+            text.append("\nTop: ").append(best.username()).append(" (").append(best.wins()).append(" wins)");
+        }
+        return text.toString();
     }
 
     public void setHandler(Handler handler) {
@@ -534,6 +604,10 @@ public class GameMenuPane extends StackPane {
         musicSlider.setValue(AudioSettings.getMusicVolume());
         musicSlider.setDisable(!AudioSettings.isMusicEnabled());
         updateMusicValueLabel();
+        effectsToggle.setSelected(AudioSettings.isEffectsEnabled());
+        effectsSlider.setValue(AudioSettings.getEffectsVolume());
+        effectsSlider.setDisable(!AudioSettings.isEffectsEnabled());
+        updateEffectsValueLabel();
     }
 
     private void updateMusicValueLabel() {
@@ -545,6 +619,15 @@ public class GameMenuPane extends StackPane {
         musicValueLabel.setText((int) pct + "%");
     }
 
+    private void updateEffectsValueLabel() {
+        if (!AudioSettings.isEffectsEnabled()) {
+            effectsValueLabel.setText("Muted");
+            return;
+        }
+        double pct = Math.round(effectsSlider.getValue() * 100);
+        effectsValueLabel.setText((int) pct + "%");
+    }
+
     private void configureLevelButtons() {
         double overlayX = overlayImage != null ? overlayImage.getLayoutX() : 120;
         double overlayY = overlayImage != null ? overlayImage.getLayoutY() : 100;
@@ -0,0 +1,69 @@
+package pvz.ui;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import pvz.util.PerfMetrics;
+
+/**
+ * Performance readout drawn over a game: tick and frame times, queued FX work, threads, heap, GC,
+ * image cache and entity counts from a {@link PerfMetrics}, refreshed with each sample.
+ *
+ * Keys (once {@link #installKeys} is called):
+ * - F3 shows or hides the overlay.
+ * - F4 writes the collected samples to data/metrics as CSV.
+ */
+public class MetricsOverlay extends Label {
+    private final PerfMetrics metrics;
+
+    public MetricsOverlay(PerfMetrics metrics, double x, double y) {
+        this.metrics = metrics;
+        setLayoutX(x);
+        setLayoutY(y);
+        setFont(Font.font("Monospaced", 12));
+        setTextFill(Color.WHITE);
+        setStyle("-fx-background-color: rgba(0,0,0,0.65); -fx-padding: 6px 10px; -fx-background-radius: 6;");
+        setMouseTransparent(true);
+        setVisible(false);
+        metrics.setOnSample(() -> {
+            if (isVisible()) {
+                setText(metrics.describe());
+            }
+        });
+    }
+
+    public void toggle() {
+        setVisible(!isVisible());
+        if (isVisible()) {
+            setText(metrics.describe());
+            toFront();
+        }
+    }
+
+    public void exportCsv() {
+        try {
+            Path file = metrics.exportCsv();
+            System.out.println("Metrics written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Could not write metrics: " + e.getMessage());
+        }
+    }
+
+    /** Handle F3 and F4 on the scene, alongside its other key handlers. */
+    public void installKeys(Scene scene) {
+        scene.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.F3) {
+                toggle();
+            } else if (event.getCode() == KeyCode.F4) {
+                exportCsv();
+            }
+        });
+    }
+}
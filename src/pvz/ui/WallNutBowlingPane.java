@@ -2,11 +2,10 @@ package pvz.ui;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import javafx.animation.AnimationTimer;
 import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
@@ -27,8 +26,6 @@ import javafx.scene.effect.ColorAdjust;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
@@ -36,10 +33,15 @@ import javafx.scene.text.FontWeight;
 import javafx.util.Duration;
 import javafx.stage.Stage;
 
+import pvz.model.SoundEffects;
 import pvz.model.SoundtrackPlayer;
 import pvz.model.LoadingScreen;
 import pvz.model.Yard;
 import pvz.util.AssetLoader;
+import pvz.util.PerfMetrics;
+import pvz.util.SpriteAnimation;
+import pvz.util.SpriteAnimator;
+import pvz.util.SpriteAtlas;
 
 /**
  * Dedicated wall-nut bowling pane that reuses the yard constants we just studied to feel like
@@ -79,6 +81,11 @@ public class WallNutBowlingPane extends Pane {
     private final Timeline cardSpawner;
     private final Timeline conveyorLoop;
     private final AnimationTimer gameLoop;
+    private final PerfMetrics metrics = new PerfMetrics("walnut");
+    private final MetricsOverlay metricsOverlay;
+    // Rolling wall-nuts and zombies animate with the game's own clock
+    private final SpriteAnimator spriteAnimator = new SpriteAnimator();
+    private double playedMillis;
 
     private final Pane conveyorLayer = new Pane();
     private final Pane cardLayer = new Pane();
@@ -110,7 +117,6 @@ public class WallNutBowlingPane extends Pane {
 
     private final Runnable onExitAction;
     private final Stage stage;
-    private MediaPlayer zombieSpawnMediaPlayer;
 
     public WallNutBowlingPane(Stage stage, Runnable onExitAction) {
         this.stage = stage;
@@ -131,6 +137,8 @@ public class WallNutBowlingPane extends Pane {
         ballLayer.setPickOnBounds(false);
         sunLayer.setPickOnBounds(false);
         zombieLayer.setPickOnBounds(false);
+        spriteAnimator.attachTo(ballLayer);
+        spriteAnimator.attachTo(zombieLayer);
         introLayer.setMouseTransparent(false);
         introLayer.setPickOnBounds(false);
         getChildren().addAll(zombieLayer, ballLayer, sunLayer, conveyorLayer, cardLayer, introLayer);
@@ -143,6 +151,9 @@ public class WallNutBowlingPane extends Pane {
 
         cardSpawner = createCardSpawner();
         gameLoop = createGameLoop();
+        metrics.setEntityCounts(this::countEntities);
+        metricsOverlay = new MetricsOverlay(metrics, WIDTH - 420, 70);
+        getChildren().add(metricsOverlay);
         SoundtrackPlayer.stopTrack();
         SoundtrackPlayer.playInGametrack1();
         playIntroSequence();
@@ -501,7 +512,9 @@ public class WallNutBowlingPane extends Pane {
                     return;
                 }
                 double delta = (now - last) / 1_000_000_000.0;
+                metrics.recordFrame(now - last);
                 last = now;
+                long start = System.nanoTime();
                 updateConveyorCards(delta);
                 updateBalls(delta);
                 updateZombies(delta);
@@ -509,10 +522,27 @@ public class WallNutBowlingPane extends Pane {
                 maybeSpawnZombie(delta);
                 maybeSpawnSun(delta);
                 tickTimer(delta);
+                playedMillis += delta * 1000;
+                spriteAnimator.advance((long) playedMillis);
+                metrics.recordTick(System.nanoTime() - start);
             }
         };
     }
 
+    private Map<String, Integer> countEntities() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("MiniZombie", miniZombies.size());
+        counts.put("WallnutBall", wallnutBalls.size());
+        counts.put("ConveyorCard", conveyorCards.size());
+        counts.put("MiniLawnMower", lawnMowers.size());
+        return counts;
+    }
+
+    /** Performance overlay for this minigame; Main binds its keys to the scene. */
+    public MetricsOverlay getMetricsOverlay() {
+        return metricsOverlay;
+    }
+
     private void updateBalls(double delta) {
         Iterator<WallnutBall> iter = wallnutBalls.iterator();
         while (iter.hasNext()) {
@@ -680,35 +710,11 @@ public class WallNutBowlingPane extends Pane {
         if (cardSpawner != null) cardSpawner.stop();
         if (conveyorLoop != null) conveyorLoop.stop();
         if (gameLoop != null) gameLoop.stop();
-        if (zombieSpawnMediaPlayer != null) {
-            zombieSpawnMediaPlayer.stop();
-            zombieSpawnMediaPlayer = null;
-        }
+        SoundEffects.stopAll();
         SoundtrackPlayer.stopTrack();
         gameOn = false;
     }
 
-    private String resolveMediaPath(String resourcePath) {
-        try {
-            var url = getClass().getResource(resourcePath);
-            if (url != null) {
-                return url.toExternalForm();
-            }
-            Path fallback = Paths.get("src" + resourcePath);
-            if (Files.exists(fallback)) {
-                return fallback.toUri().toString();
-            }
-            Path binFallback = Paths.get("bin" + resourcePath);
-            if (Files.exists(binFallback)) {
-                return binFallback.toUri().toString();
-            }
-        } catch (Exception e) {
-            System.out.println("Failed to resolve media path for " + resourcePath + " : " + e.getMessage());
-        }
-        System.out.println("Missing media: " + resourcePath);
-        return null;
-    }
-
     private void reassignCardSlots() {
         for (int i = 0; i < conveyorCards.size(); i++) {
             conveyorCards.get(i).setSlot(i);
@@ -722,37 +728,11 @@ public class WallNutBowlingPane extends Pane {
     }
 
     private void playRandomZombieSpawnSound() {
-        try {
-            String[] audioPaths = {
-                    getClass().getResource("/pvz/music/zombie s1.mp3").toExternalForm(),
-                    getClass().getResource("/pvz/music/zombie s2.mp3").toExternalForm(),
-                    getClass().getResource("/pvz/music/zombie s3.mp3").toExternalForm()
-            };
-            int randomIndex = random.nextInt(audioPaths.length);
-            Media media = new Media(audioPaths[randomIndex]);
-            zombieSpawnMediaPlayer = new MediaPlayer(media);
-            zombieSpawnMediaPlayer.setVolume(0.3);
-            zombieSpawnMediaPlayer.play();
-        } catch (Exception e) {
-            System.out.println("Error playing zombie spawn sound: " + e.getMessage());
-        }
+        SoundEffects.playAny(0.3, "/pvz/music/zombie s1.mp3", "/pvz/music/zombie s2.mp3", "/pvz/music/zombie s3.mp3");
     }
 
     private void playSoundEffect(String resourcePath, double volume) {
-        try {
-            String fullPath = resolveMediaPath(resourcePath);
-            if (fullPath == null) {
-                System.out.println("Sound missing: " + resourcePath);
-                return;
-            }
-            Media media = new Media(fullPath);
-            MediaPlayer player = new MediaPlayer(media);
-            player.setVolume(volume);
-            player.setOnError(() -> System.out.println("Sound error for " + resourcePath + ": " + player.getError()));
-            player.play();
-        } catch (Exception e) {
-            System.out.println("Error playing sound effect: " + e.getMessage() + " for " + resourcePath);
-        }
+        SoundEffects.play(resourcePath, volume);
     }
 
     private void playImpactSound(boolean secondary) {
@@ -856,8 +836,8 @@ public class WallNutBowlingPane extends Pane {
 
         WallnutBall(double x, int row) {
             this.row = row;
-            Image sprite = AssetLoader.loadImage("/pvz/images/Wall-nutBawling/walnut_roll_smooth_loop_faster.gif");
-            view = new ImageView(sprite);
+            view = new ImageView();
+            new SpriteAnimation(view).play(SpriteAtlas.load("/pvz/images/Wall-nutBawling/walnut_roll_smooth_loop_faster.gif"));
             view.setFitWidth(60);
             view.setFitHeight(60);
             double laneCenter = PLAY_AREA_Y + row * laneHeight + (laneHeight - view.getFitHeight()) / 2.0;
@@ -905,6 +885,7 @@ public class WallNutBowlingPane extends Pane {
 
     private class MiniZombie {
         final ImageView view;
+        final SpriteAnimation animation;
         final int row;
         final double speed;
         private final ZombieType type;
@@ -915,8 +896,9 @@ public class WallNutBowlingPane extends Pane {
             this.type = type;
             this.row = row;
             this.remainingHits = type.hits;
-            Image sprite = AssetLoader.loadImage(type.imagePath);
-            this.view = new ImageView(sprite);
+            this.view = new ImageView();
+            this.animation = new SpriteAnimation(view);
+            animation.play(SpriteAtlas.load(type.imagePath));
             this.view.setFitWidth(90);
             this.view.setFitHeight(110);
             double laneCenter = PLAY_AREA_Y + row * laneHeight + (laneHeight - view.getFitHeight()) / 2.0;
@@ -982,7 +964,7 @@ public class WallNutBowlingPane extends Pane {
             String deathPath = type == ZombieType.FOOTBALL
                 ? "/pvz/images/zombies/FootballZombieDie.gif"
                 : "/pvz/images/zombies/ZombieDie.gif";
-            view.setImage(AssetLoader.loadImage(deathPath));
+            animation.play(SpriteAtlas.load(deathPath));
             view.setFitWidth(type == ZombieType.FOOTBALL ? 134 : 134);
             view.setFitHeight(type == ZombieType.FOOTBALL ? 150 : 155);
             view.setPreserveRatio(true);
@@ -4,8 +4,42 @@ import javafx.scene.image.Image;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Loads images from the classpath and keeps each decoded {@link Image} so every distinct sprite
+ * is decoded once per process. Entries are soft-referenced (the GC may still reclaim them under
+ * pressure) and evicted least-recently-used once the estimated decoded size exceeds the budget.
+ * {@link SpriteAtlas}es are kept in the same cache under the same budget, so one limit covers
+ * every decoded sprite.
+ *
+ * The budget defaults to 256 MB and can be overridden with {@code -Dpvz.imageCacheBytes=<bytes>}
+ * or {@link #setCacheBudgetBytes(long)}.
+ */
 public final class AssetLoader {
+    private static final long DEFAULT_BUDGET_BYTES = 256L * 1024 * 1024;
+    // Atlases are cached apart from the plain image of the same file
+    private static final String ATLAS_KEY_PREFIX = "atlas:";
+
+    // Access-ordered so iteration starts at the least recently used entry.
+    private static final Map<String, CachedAsset> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private static long budgetBytes = Long.getLong("pvz.imageCacheBytes", DEFAULT_BUDGET_BYTES);
+    private static long cachedBytes;
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+    // Pixel sizes read from file headers, for callers that never decode the image
+    private static final Map<String, double[]> headerSizes = new ConcurrentHashMap<>();
+
     private AssetLoader() {
     }
 
@@ -16,6 +50,144 @@ public final class AssetLoader {
 
         String normalizedPath = normalizePath(resourcePath);
 
+        synchronized (AssetLoader.class) {
+            CachedAsset cached = cache.get(normalizedPath);
+            Image image = cached == null ? null : (Image) cached.value.get();
+            if (image != null) {
+                hits++;
+                return image;
+            }
+            if (cached != null) {
+                // Reclaimed by the GC; forget the stale entry before decoding again.
+                cache.remove(normalizedPath);
+                cachedBytes -= cached.bytes;
+            }
+            misses++;
+        }
+
+        // Decode outside the lock so parallel loaders don't serialize on each other.
+        Image image = decode(normalizedPath);
+
+        synchronized (AssetLoader.class) {
+            CachedAsset raced = cache.get(normalizedPath);
+            Image existing = raced == null ? null : (Image) raced.value.get();
+            if (existing != null) {
+                return existing;
+            }
+            long bytes = estimateBytes(image);
+            if (raced != null) {
+                cachedBytes -= raced.bytes;
+            }
+            cache.put(normalizedPath, new CachedAsset(image, bytes));
+            cachedBytes += bytes;
+            trimToBudget();
+        }
+        return image;
+    }
+
+    /**
+     * Width and height of an image in pixels. Taken from the decoded image when it is cached,
+     * otherwise read from the file header with ImageIO, which needs no JavaFX toolkit (headless
+     * simulations size their hitboxes this way).
+     */
+    public static double[] imageSize(String resourcePath) {
+        if (resourcePath == null || resourcePath.isEmpty()) {
+            throw new IllegalArgumentException("Image path must not be empty");
+        }
+        String normalizedPath = normalizePath(resourcePath);
+        synchronized (AssetLoader.class) {
+            CachedAsset cached = cache.get(normalizedPath);
+            Image image = cached == null ? null : (Image) cached.value.get();
+            if (image != null) {
+                return new double[] {image.getWidth(), image.getHeight()};
+            }
+        }
+        return headerSizes.computeIfAbsent(normalizedPath, AssetLoader::readHeaderSize).clone();
+    }
+
+    public static synchronized void setCacheBudgetBytes(long bytes) {
+        budgetBytes = Math.max(0, bytes);
+        trimToBudget();
+    }
+
+    public static synchronized long getCacheBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /** Estimated decoded size of the images currently cached, not counting atlases. */
+    public static synchronized long getCachedBytes() {
+        return cachedBytes - cachedAtlasBytes();
+    }
+
+    public static synchronized int getCachedImageCount() {
+        return cache.size() - cachedAtlasCount();
+    }
+
+    /** The atlas cached for this normalized path, or null if there is none or it was reclaimed. */
+    static synchronized SpriteAtlas getCachedAtlas(String normalizedPath) {
+        String key = ATLAS_KEY_PREFIX + normalizedPath;
+        CachedAsset cached = cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        SpriteAtlas atlas = (SpriteAtlas) cached.value.get();
+        if (atlas == null) {
+            cache.remove(key);
+            cachedBytes -= cached.bytes;
+        }
+        return atlas;
+    }
+
+    /** Cache an atlas under the image budget, unless another thread got there first; returns the cached one. */
+    static synchronized SpriteAtlas cacheAtlas(String normalizedPath, SpriteAtlas atlas, long bytes) {
+        SpriteAtlas existing = getCachedAtlas(normalizedPath);
+        if (existing != null) {
+            return existing;
+        }
+        cache.put(ATLAS_KEY_PREFIX + normalizedPath, new CachedAsset(atlas, bytes));
+        cachedBytes += bytes;
+        trimToBudget();
+        return atlas;
+    }
+
+    static synchronized int cachedAtlasCount() {
+        int count = 0;
+        for (String key : cache.keySet()) {
+            if (key.startsWith(ATLAS_KEY_PREFIX)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static synchronized long cachedAtlasBytes() {
+        long bytes = 0;
+        for (Map.Entry<String, CachedAsset> entry : cache.entrySet()) {
+            if (entry.getKey().startsWith(ATLAS_KEY_PREFIX)) {
+                bytes += entry.getValue().bytes;
+            }
+        }
+        return bytes;
+    }
+
+    public static synchronized long getCacheHits() {
+        return hits;
+    }
+
+    public static synchronized long getCacheMisses() {
+        return misses;
+    }
+
+    public static synchronized long getCacheEvictions() {
+        return evictions;
+    }
+
+    public static synchronized void clearCache() {
+        cache.clear();
+        cachedBytes = 0;
+    }
+
+    private static Image decode(String normalizedPath) {
         try (InputStream stream = AssetLoader.class.getResourceAsStream(normalizedPath)) {
             if (stream == null) {
                 throw new IllegalArgumentException("Missing image resource: " + normalizedPath);
@@ -26,7 +198,45 @@ public final class AssetLoader {
         }
     }
 
-    private static String normalizePath(String rawPath) {
+    private static double[] readHeaderSize(String normalizedPath) {
+        try (InputStream stream = AssetLoader.class.getResourceAsStream(normalizedPath)) {
+            if (stream == null) {
+                throw new IllegalArgumentException("Missing image resource: " + normalizedPath);
+            }
+            try (ImageInputStream input = ImageIO.createImageInputStream(stream)) {
+                Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+                if (!readers.hasNext()) {
+                    throw new IllegalArgumentException("Unsupported image format: " + normalizedPath);
+                }
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(input, true, true);
+                    return new double[] {reader.getWidth(0), reader.getHeight(0)};
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Failed to read image size: " + normalizedPath, ex);
+        }
+    }
+
+    private static void trimToBudget() {
+        Iterator<CachedAsset> it = cache.values().iterator();
+        while (cachedBytes > budgetBytes && it.hasNext()) {
+            CachedAsset eldest = it.next();
+            it.remove();
+            cachedBytes -= eldest.bytes;
+            evictions++;
+        }
+    }
+
+    /** 32-bit ARGB estimate; only the first frame is counted for animated images. */
+    private static long estimateBytes(Image image) {
+        return (long) Math.ceil(image.getWidth()) * (long) Math.ceil(image.getHeight()) * 4L;
+    }
+
+    static String normalizePath(String rawPath) {
         if (rawPath.startsWith("/")) {
             return rawPath;
         }
@@ -35,4 +245,15 @@ public final class AssetLoader {
         }
         return "/pvz/" + rawPath;
     }
+
+    // A decoded image or a sprite atlas
+    private static final class CachedAsset {
+        private final SoftReference<Object> value;
+        private final long bytes;
+
+        CachedAsset(Object value, long bytes) {
+            this.value = new SoftReference<>(value);
+            this.bytes = bytes;
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package pvz.util;
+
+import javafx.application.Platform;
+import pvz.model.SoundEffects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Decodes a batch of images (into the {@link AssetLoader} cache), animated sprites (into
+ * {@link SpriteAtlas}es) and sound effects (into the {@link SoundEffects} mixer) on a small worker
+ * pool, reporting progress and completion back on
+ * the JavaFX thread. Missing assets are logged and counted as done so a bad path never stalls a
+ * loading screen.
+ */
+public final class AssetPreloader {
+    private static final int MAX_WORKERS = 4;
+
+    private final List<String> imagePaths;
+    private final List<String> spritePaths;
+    private final List<String> soundPaths;
+
+    public AssetPreloader(List<String> imagePaths, List<String> soundPaths) {
+        this(imagePaths, List.of(), soundPaths);
+    }
+
+    /** @param spritePaths images entities animate, built into sprite atlases rather than cached as plain images */
+    public AssetPreloader(List<String> imagePaths, List<String> spritePaths, List<String> soundPaths) {
+        this.imagePaths = List.copyOf(imagePaths);
+        this.spritePaths = List.copyOf(spritePaths);
+        this.soundPaths = List.copyOf(soundPaths);
+    }
+
+    /** A preloader with nothing to do; completes immediately. */
+    public static AssetPreloader empty() {
+        return new AssetPreloader(List.of(), List.of(), List.of());
+    }
+
+    public int getAssetCount() {
+        return imagePaths.size() + spritePaths.size() + soundPaths.size();
+    }
+
+    /**
+     * Start loading in the background. {@code onProgress} receives values in [0, 1] and
+     * {@code onDone} runs once; both are called on the JavaFX thread.
+     */
+    public void start(DoubleConsumer onProgress, Runnable onDone) {
+        int total = getAssetCount();
+        if (total == 0) {
+            Platform.runLater(() -> {
+                onProgress.accept(1.0);
+                onDone.run();
+            });
+            return;
+        }
+
+        int workers = Math.max(1, Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1));
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "asset-preloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(total);
+        for (String path : imagePaths) {
+            tasks.add(CompletableFuture.runAsync(() -> loadImage(path), pool)
+                    .whenComplete((ignored, error) -> report(completed.incrementAndGet(), total, onProgress)));
+        }
+        for (String path : spritePaths) {
+            tasks.add(CompletableFuture.runAsync(() -> buildAtlas(path), pool)
+                    .whenComplete((ignored, error) -> report(completed.incrementAndGet(), total, onProgress)));
+        }
+        for (String path : soundPaths) {
+            tasks.add(CompletableFuture.runAsync(() -> warmSound(path), pool)
+                    .whenComplete((ignored, error) -> report(completed.incrementAndGet(), total, onProgress)));
+        }
+
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            pool.shutdown();
+            Platform.runLater(onDone);
+        });
+    }
+
+    private static void report(int done, int total, DoubleConsumer onProgress) {
+        double progress = (double) done / total;
+        Platform.runLater(() -> onProgress.accept(progress));
+    }
+
+    private static void loadImage(String path) {
+        try {
+            AssetLoader.loadImage(path);
+        } catch (IllegalArgumentException ex) {
+            System.out.println("Preload skipped image: " + ex.getMessage());
+        }
+    }
+
+    private static void buildAtlas(String path) {
+        try {
+            SpriteAtlas.load(path);
+        } catch (IllegalArgumentException ex) {
+            System.out.println("Preload skipped sprite: " + ex.getMessage());
+        }
+    }
+
+    /** Decode the effect into the mixer's voice bank so the first playback doesn't stall. */
+    private static void warmSound(String path) {
+        SoundEffects.preload(path);
+    }
+}
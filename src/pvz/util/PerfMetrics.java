@@ -0,0 +1,302 @@
+package pvz.util;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+
+/**
+ * Performance counters for one running game: histograms of simulation tick, scene sync and frame
+ * times, and once a second a {@link Sample} of the entity counts, queued FX work, threads, heap,
+ * GC activity, image cache and sprite atlases. Shown by the metrics overlay and written out with
+ * {@link #exportCsv()}.
+ *
+ * Recording is a few array increments, so it can stay on in every game; everything else happens
+ * once a second. All methods are meant for the FX thread, where the game loops run.
+ */
+public final class PerfMetrics {
+    private static final long SAMPLE_NANOS = 1_000_000_000L;
+    private static final int MAX_SAMPLES = 3600; // an hour at one sample a second
+    private static final Path DIR = Path.of("data", "metrics");
+
+    /**
+     * Durations in power-of-two microsecond buckets: bucket 0 counts anything under 1 µs, bucket
+     * i anything from 2^(i-1) up to 2^i µs. Percentiles are reported as their bucket's upper bound.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 24; // the last one takes everything from ~4 s up
+        private final long[] counts = new long[BUCKETS];
+        private long total;
+        private long maxNanos;
+
+        public void record(long nanos) {
+            long micros = nanos / 1000;
+            int bucket = micros <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            counts[bucket]++;
+            total++;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        public long getCount() {
+            return total;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /** Upper bound in µs of the bucket holding the given percentile (0-100), or 0 if empty. */
+        public long percentileMicros(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= Math.max(1, rank)) {
+                    return upperMicros(i);
+                }
+            }
+            return upperMicros(BUCKETS - 1);
+        }
+
+        static long upperMicros(int bucket) {
+            return 1L << bucket;
+        }
+
+        void addTo(Histogram other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                other.counts[i] += counts[i];
+            }
+            other.total += total;
+            other.maxNanos = Math.max(other.maxNanos, maxNanos);
+        }
+
+        void reset() {
+            Arrays.fill(counts, 0);
+            total = 0;
+            maxNanos = 0;
+        }
+    }
+
+    /** One second of a game. Tick, sync and frame figures are for that second only. */
+    public record Sample(LocalDateTime time, long ticks, long tickP50Micros, long tickP99Micros, long tickMaxMicros,
+                         long syncP99Micros, long frameP50Micros, long frameP99Micros, long frameMaxMicros,
+                         int queued, double fxLatencyMillis, int threads, long heapUsedBytes,
+                         long gcCount, long gcMillis, int images, long imageBytes, long imageHits, long imageMisses,
+                         int atlases, long atlasBytes, Map<String, Integer> entities) {
+    }
+
+    private final String name;
+    // This second's timings, folded into the session totals at each sample
+    private final Histogram ticks = new Histogram();
+    private final Histogram syncs = new Histogram();
+    private final Histogram frames = new Histogram();
+    private final Histogram sessionTicks = new Histogram();
+    private final Histogram sessionSyncs = new Histogram();
+    private final Histogram sessionFrames = new Histogram();
+    private final ArrayDeque<Sample> samples = new ArrayDeque<>();
+
+    private Supplier<Map<String, Integer>> entityCounts = Map::of;
+    private IntSupplier queued = () -> 0;
+    private Runnable onSample = () -> { };
+
+    private long lastSampleNanos = System.nanoTime();
+    private long lastGcCount = gcCount();
+    private long lastGcMillis = gcMillis();
+    private long fxLatencyNanos;
+    private boolean probePending;
+
+    /** @param name what is being measured, e.g. "level3"; used in exported file names */
+    public PerfMetrics(String name) {
+        this.name = name;
+    }
+
+    /** Live entities by type, counted at each sample. */
+    public void setEntityCounts(Supplier<Map<String, Integer>> entityCounts) {
+        this.entityCounts = entityCounts;
+    }
+
+    /** Work queued for the FX thread but not yet run, counted at each sample. */
+    public void setQueued(IntSupplier queued) {
+        this.queued = queued;
+    }
+
+    /** Called after each sample is taken, e.g. to refresh an overlay. */
+    public void setOnSample(Runnable onSample) {
+        this.onSample = onSample;
+    }
+
+    /** One simulation step took this long. */
+    public void recordTick(long nanos) {
+        ticks.record(nanos);
+    }
+
+    /** Applying one frame's changes to the scene took this long. */
+    public void recordSync(long nanos) {
+        syncs.record(nanos);
+    }
+
+    /** This long passed since the previous frame; takes a sample once a second. */
+    public void recordFrame(long intervalNanos) {
+        frames.record(intervalNanos);
+        long now = System.nanoTime();
+        if (now - lastSampleNanos >= SAMPLE_NANOS) {
+            lastSampleNanos = now;
+            sample();
+        }
+    }
+
+    private void sample() {
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        Runtime runtime = Runtime.getRuntime();
+        Sample sample = new Sample(LocalDateTime.now(), ticks.getCount(),
+                ticks.percentileMicros(50), ticks.percentileMicros(99), ticks.getMaxNanos() / 1000,
+                syncs.percentileMicros(99),
+                frames.percentileMicros(50), frames.percentileMicros(99), frames.getMaxNanos() / 1000,
+                queued.getAsInt(), fxLatencyNanos / 1e6, Thread.activeCount(),
+                runtime.totalMemory() - runtime.freeMemory(),
+                gcCount - lastGcCount, gcMillis - lastGcMillis,
+                AssetLoader.getCachedImageCount(), AssetLoader.getCachedBytes(),
+                AssetLoader.getCacheHits(), AssetLoader.getCacheMisses(),
+                SpriteAtlas.getCachedAtlasCount(), SpriteAtlas.getCachedBytes(),
+                entityCounts.get());
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+        if (samples.size() == MAX_SAMPLES) {
+            samples.removeFirst();
+        }
+        samples.addLast(sample);
+
+        ticks.addTo(sessionTicks);
+        syncs.addTo(sessionSyncs);
+        frames.addTo(sessionFrames);
+        ticks.reset();
+        syncs.reset();
+        frames.reset();
+
+        probeFxLatency();
+        onSample.run();
+    }
+
+    // How long a runLater posted now waits for the FX thread; read at the next sample
+    private void probeFxLatency() {
+        if (probePending) {
+            return;
+        }
+        probePending = true;
+        long posted = System.nanoTime();
+        Platform.runLater(() -> {
+            fxLatencyNanos = System.nanoTime() - posted;
+            probePending = false;
+        });
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    public Sample getLatest() {
+        return samples.peekLast();
+    }
+
+    /** A few lines describing the latest sample, for the overlay. */
+    public String describe() {
+        Sample s = samples.peekLast();
+        if (s == null) {
+            return "Collecting metrics...";
+        }
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("tick  p50 <%d us  p99 <%d us  max %d us  (%d/s)%n",
+                s.tickP50Micros(), s.tickP99Micros(), s.tickMaxMicros(), s.ticks()));
+        text.append(String.format("sync  p99 <%d us%n", s.syncP99Micros()));
+        text.append(String.format("frame p50 <%d us  p99 <%d us  max %.1f ms%n",
+                s.frameP50Micros(), s.frameP99Micros(), s.frameMaxMicros() / 1000.0));
+        text.append(String.format("FX queue %d  runLater wait %.2f ms%n", s.queued(), s.fxLatencyMillis()));
+        text.append(String.format("threads %d  heap %d MB  GC %d (%d ms)%n",
+                s.threads(), s.heapUsedBytes() >> 20, s.gcCount(), s.gcMillis()));
+        long lookups = s.imageHits() + s.imageMisses();
+        text.append(String.format("images %d  %d MB  hits %d%%  atlases %d  %d MB%n", s.images(), s.imageBytes() >> 20,
+                lookups == 0 ? 100 : s.imageHits() * 100 / lookups, s.atlases(), s.atlasBytes() >> 20));
+        s.entities().forEach((type, count) -> text.append(type).append(' ').append(count).append("  "));
+        return text.toString().strip();
+    }
+
+    /**
+     * Write the samples kept so far, one row a second, and the session's timing histograms to
+     * data/metrics; returns the samples file. The histograms go next to it with a -histogram suffix.
+     */
+    public Path exportCsv() throws IOException {
+        Files.createDirectories(DIR);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = DIR.resolve(name + "-" + stamp + ".csv");
+
+        // Entity types come and go, so the columns are every type seen in any sample
+        Set<String> types = new LinkedHashSet<>();
+        samples.forEach(sample -> types.addAll(sample.entities().keySet()));
+
+        List<String> lines = new ArrayList<>(samples.size() + 1);
+        StringBuilder header = new StringBuilder("time,ticks,tick_p50_us,tick_p99_us,tick_max_us,sync_p99_us,"
+                + "frame_p50_us,frame_p99_us,frame_max_us,fx_queued,fx_wait_ms,threads,heap_bytes,"
+                + "gc_count,gc_ms,images,image_bytes,image_hits,image_misses,atlases,atlas_bytes");
+        types.forEach(type -> header.append(',').append(type));
+        lines.add(header.toString());
+        for (Sample s : samples) {
+            StringBuilder row = new StringBuilder();
+            row.append(s.time()).append(',').append(s.ticks()).append(',')
+                    .append(s.tickP50Micros()).append(',').append(s.tickP99Micros()).append(',').append(s.tickMaxMicros()).append(',')
+                    .append(s.syncP99Micros()).append(',')
+                    .append(s.frameP50Micros()).append(',').append(s.frameP99Micros()).append(',').append(s.frameMaxMicros()).append(',')
+                    .append(s.queued()).append(',').append(String.format("%.3f", s.fxLatencyMillis())).append(',')
+                    .append(s.threads()).append(',').append(s.heapUsedBytes()).append(',')
+                    .append(s.gcCount()).append(',').append(s.gcMillis()).append(',')
+                    .append(s.images()).append(',').append(s.imageBytes()).append(',')
+                    .append(s.imageHits()).append(',').append(s.imageMisses()).append(',')
+                    .append(s.atlases()).append(',').append(s.atlasBytes());
+            for (String type : types) {
+                row.append(',').append(s.entities().getOrDefault(type, 0));
+            }
+            lines.add(row.toString());
+        }
+        Files.write(file, lines);
+
+        List<String> histogram = new ArrayList<>();
+        histogram.add("below_us,ticks,syncs,frames");
+        for (int i = 0; i < Histogram.BUCKETS; i++) {
+            histogram.add(Histogram.upperMicros(i) + "," + sessionTicks.counts[i] + "," + sessionSyncs.counts[i]
+                    + "," + sessionFrames.counts[i]);
+        }
+        Files.write(DIR.resolve(name + "-" + stamp + "-histogram.csv"), histogram);
+        return file;
+    }
+}
@@ -0,0 +1,68 @@
+package pvz.util;
+
+import javafx.scene.Parent;
+import javafx.scene.image.ImageView;
+
+/**
+ * Plays a {@link SpriteAtlas} on one ImageView by moving the view's viewport from frame to frame.
+ * Frames are chosen from the {@link SpriteAnimator} of the pane the view is on, so they advance
+ * with that game's clock (they stop while it is paused) and the view only changes when the frame
+ * does. A view that isn't on an animated pane shows the first frame.
+ *
+ * Playing a new atlas starts it from its first frame; playing the one already showing carries on.
+ * FX thread only.
+ */
+public final class SpriteAnimation {
+    private final ImageView view;
+    private SpriteAtlas atlas;
+    private SpriteAnimator animator;
+    private long startMillis;
+    private int shownFrame;
+
+    public SpriteAnimation(ImageView view) {
+        this.view = view;
+        view.parentProperty().addListener((observable, oldParent, newParent) -> attach(newParent));
+    }
+
+    public ImageView getView() {
+        return view;
+    }
+
+    public SpriteAtlas getAtlas() {
+        return atlas;
+    }
+
+    public void play(SpriteAtlas next) {
+        if (next == atlas) {
+            return;
+        }
+        atlas = next;
+        view.setImage(next.getImage());
+        shownFrame = 0;
+        view.setViewport(next.getFrame(0));
+        attach(view.getParent());
+    }
+
+    // Join the animator of the view's pane, leaving the old one; restarts the clock either way
+    private void attach(Parent parent) {
+        SpriteAnimator next = atlas != null && atlas.getFrameCount() > 1 ? SpriteAnimator.of(parent) : null;
+        if (animator != next) {
+            if (animator != null) {
+                animator.remove(this);
+            }
+            if (next != null) {
+                next.add(this);
+            }
+            animator = next;
+        }
+        startMillis = animator == null ? 0 : animator.getMillis();
+    }
+
+    void show(long nowMillis) {
+        int frame = atlas.frameAt(nowMillis - startMillis);
+        if (frame != shownFrame) {
+            shownFrame = frame;
+            view.setViewport(atlas.getFrame(frame));
+        }
+    }
+}
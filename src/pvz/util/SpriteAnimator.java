@@ -0,0 +1,53 @@
+package pvz.util;
+
+import java.util.ArrayList;
+
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+
+/**
+ * The clock for the {@link SpriteAnimation}s on a game's panes. A game attaches it to the panes its
+ * sprites go on and calls {@link #advance(long)} with its own time once per frame; animations join
+ * when their view is added to one of those panes and leave when it is removed, so a sprite that
+ * has left the game (or a game that has been closed) costs nothing. FX thread only.
+ */
+public final class SpriteAnimator {
+    private final ArrayList<SpriteAnimation> playing = new ArrayList<>();
+    private long millis;
+
+    /** Animate sprites put on this pane from now on. */
+    public void attachTo(Pane pane) {
+        pane.getProperties().put(SpriteAnimator.class, this);
+    }
+
+    static SpriteAnimator of(Parent parent) {
+        return parent != null && parent.getProperties().get(SpriteAnimator.class) instanceof SpriteAnimator animator
+                ? animator
+                : null;
+    }
+
+    /** Show every playing sprite's frame for this game time. */
+    public void advance(long gameMillis) {
+        millis = gameMillis;
+        for (int i = 0; i < playing.size(); i++) {
+            playing.get(i).show(gameMillis);
+        }
+    }
+
+    long getMillis() {
+        return millis;
+    }
+
+    /** Animations currently being advanced. */
+    public int getPlayingCount() {
+        return playing.size();
+    }
+
+    void add(SpriteAnimation animation) {
+        playing.add(animation);
+    }
+
+    void remove(SpriteAnimation animation) {
+        playing.remove(animation);
+    }
+}
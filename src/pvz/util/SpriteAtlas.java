@@ -0,0 +1,284 @@
+package pvz.util;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import org.w3c.dom.Node;
+
+/**
+ * One animated sprite decoded once into a texture atlas: every frame of the GIF, fully composed,
+ * packed row by row into a single image, with each frame's rectangle and how long it shows. All
+ * sprites of a kind (every walking zombie, say) show the same atlas through an ImageView viewport,
+ * and a {@link SpriteAnimation} picks the frame from the game clock, so JavaFX keeps no per-sprite
+ * animation running and the frames are decoded once rather than per sprite.
+ *
+ * Built on first use by {@link #load}, or ahead of time by {@link AssetPreloader} while the
+ * loading screen is up, and kept in {@link AssetLoader}'s soft, budgeted cache alongside the
+ * images, so an atlas no level is using can be evicted and rebuilt later. Anything that isn't a
+ * readable GIF becomes a one-frame atlas of the plain image, which draws exactly as before.
+ *
+ * Some GIFs are drawn far below their size (the 360 px peashooter shows at 90 px), so frames are
+ * stored at most {@value #MAX_FRAME_SIZE} px across, still twice what any sprite is drawn at,
+ * which leaves room for high-DPI screens and the cherry bomb's swell.
+ */
+public final class SpriteAtlas {
+    private static final int MAX_ATLAS_WIDTH = 4096;
+    private static final int DEFAULT_FRAME_MILLIS = 100; // what browsers show for a 0 or 10 ms GIF delay
+    private static final int MAX_FRAME_SIZE = 200;
+
+    private final Image image;
+    private final Rectangle2D[] frames;   // null entry: the whole image
+    private final int[] frameEndMillis;   // cumulative, so frame i shows until frameEndMillis[i]
+    private final boolean looping;
+
+    private SpriteAtlas(Image image, Rectangle2D[] frames, int[] frameEndMillis, boolean looping) {
+        this.image = image;
+        this.frames = frames;
+        this.frameEndMillis = frameEndMillis;
+        this.looping = looping;
+    }
+
+    /** The atlas for a sprite, decoded on first use; the path is resolved like {@link AssetLoader#loadImage}. */
+    public static SpriteAtlas load(String resourcePath) {
+        if (resourcePath == null || resourcePath.isEmpty()) {
+            throw new IllegalArgumentException("Image path must not be empty");
+        }
+        String normalizedPath = AssetLoader.normalizePath(resourcePath);
+        SpriteAtlas cached = AssetLoader.getCachedAtlas(normalizedPath);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Decode without holding the cache lock so the preloader's workers build atlases in parallel
+        SpriteAtlas atlas = normalizedPath.toLowerCase().endsWith(".gif") ? decodeGif(normalizedPath) : null;
+        if (atlas == null) {
+            atlas = new SpriteAtlas(AssetLoader.loadImage(normalizedPath), new Rectangle2D[] {null}, new int[] {1}, false);
+        }
+
+        // A one-frame atlas holds on to its image, so it is charged for it as well
+        long bytes = (long) Math.ceil(atlas.image.getWidth()) * (long) Math.ceil(atlas.image.getHeight()) * 4L;
+        return AssetLoader.cacheAtlas(normalizedPath, atlas, bytes);
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /** Where frame {@code index} sits in the atlas, or null for a one-frame atlas (the whole image). */
+    public Rectangle2D getFrame(int index) {
+        return frames[index];
+    }
+
+    /** Length of one run through the frames. */
+    public int getDurationMillis() {
+        return frameEndMillis[frameEndMillis.length - 1];
+    }
+
+    /** Whether the GIF asks to loop; otherwise it stops on its last frame. */
+    public boolean isLooping() {
+        return looping;
+    }
+
+    /** The frame showing {@code elapsedMillis} after the animation started. */
+    public int frameAt(long elapsedMillis) {
+        if (frames.length == 1) {
+            return 0;
+        }
+        int duration = getDurationMillis();
+        long t;
+        if (looping) {
+            t = elapsedMillis % duration;
+        } else if (elapsedMillis >= duration) {
+            return frames.length - 1;
+        } else {
+            t = elapsedMillis;
+        }
+        for (int i = 0; i < frameEndMillis.length; i++) {
+            if (t < frameEndMillis[i]) {
+                return i;
+            }
+        }
+        return frames.length - 1;
+    }
+
+    /** Atlases currently cached, one-frame ones included. */
+    public static int getCachedAtlasCount() {
+        return AssetLoader.cachedAtlasCount();
+    }
+
+    /** Estimated size of every atlas currently cached, one-frame ones included. */
+    public static long getCachedBytes() {
+        return AssetLoader.cachedAtlasBytes();
+    }
+
+    private static SpriteAtlas decodeGif(String normalizedPath) {
+        InputStream stream = SpriteAtlas.class.getResourceAsStream(normalizedPath);
+        if (stream == null) {
+            throw new IllegalArgumentException("Missing image resource: " + normalizedPath);
+        }
+        try (stream; ImageInputStream input = ImageIO.createImageInputStream(stream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("gif");
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, false);
+                return decodeFrames(reader);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Some GIFs trip ImageIO's decoder; JavaFX still animates those the old way
+            System.out.println("Could not build a sprite atlas for " + normalizedPath + ": " + ex);
+            return null;
+        }
+    }
+
+    // Compose each frame over the previous ones as a GIF viewer would, and copy it into its cell
+    private static SpriteAtlas decodeFrames(ImageReader reader) throws IOException {
+        int count = reader.getNumImages(true);
+        if (count <= 1) {
+            return null;
+        }
+
+        IIOMetadataNode stream = (IIOMetadataNode) reader.getStreamMetadata().getAsTree("javax_imageio_gif_stream_1.0");
+        IIOMetadataNode screen = child(stream, "LogicalScreenDescriptor");
+        int width = screen == null ? 0 : intAttribute(screen, "logicalScreenWidth");
+        int height = screen == null ? 0 : intAttribute(screen, "logicalScreenHeight");
+
+        List<BufferedImage> pieces = new ArrayList<>(count);
+        List<IIOMetadataNode> metadata = new ArrayList<>(count);
+        boolean looping = false;
+        for (int i = 0; i < count; i++) {
+            BufferedImage piece = reader.read(i);
+            IIOMetadataNode meta = (IIOMetadataNode) reader.getImageMetadata(i).getAsTree("javax_imageio_gif_image_1.0");
+            IIOMetadataNode descriptor = child(meta, "ImageDescriptor");
+            int right = intAttribute(descriptor, "imageLeftPosition") + piece.getWidth();
+            int bottom = intAttribute(descriptor, "imageTopPosition") + piece.getHeight();
+            // Some files leave the logical screen at 0x0 or smaller than their frames
+            width = Math.max(width, right);
+            height = Math.max(height, bottom);
+            looping |= hasLoopExtension(meta);
+            pieces.add(piece);
+            metadata.add(meta);
+        }
+
+        double scale = Math.min(1, (double) MAX_FRAME_SIZE / Math.max(width, height));
+        int cellWidth = Math.max(1, (int) Math.round(width * scale));
+        int cellHeight = Math.max(1, (int) Math.round(height * scale));
+        int columns = Math.max(1, Math.min(count, MAX_ATLAS_WIDTH / cellWidth));
+        int rows = (count + columns - 1) / columns;
+        WritableImage atlas = new WritableImage(columns * cellWidth, rows * cellHeight);
+        Rectangle2D[] frames = new Rectangle2D[count];
+        int[] frameEnds = new int[count];
+
+        BufferedImage canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = canvas.createGraphics();
+        BufferedImage cell = canvas;
+        Graphics2D cellGraphics = null;
+        if (cellWidth != width || cellHeight != height) {
+            cell = new BufferedImage(cellWidth, cellHeight, BufferedImage.TYPE_INT_ARGB);
+            cellGraphics = cell.createGraphics();
+            cellGraphics.setComposite(AlphaComposite.Src);
+            cellGraphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            cellGraphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        }
+        int[] pixels = new int[cellWidth * cellHeight];
+        int elapsed = 0;
+        for (int i = 0; i < count; i++) {
+            IIOMetadataNode meta = metadata.get(i);
+            IIOMetadataNode descriptor = child(meta, "ImageDescriptor");
+            IIOMetadataNode control = child(meta, "GraphicControlExtension");
+            int left = intAttribute(descriptor, "imageLeftPosition");
+            int top = intAttribute(descriptor, "imageTopPosition");
+            BufferedImage piece = pieces.get(i);
+            String disposal = control == null ? "none" : control.getAttribute("disposalMethod");
+
+            BufferedImage previous = null;
+            if ("restoreToPrevious".equals(disposal)) {
+                previous = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                previous.setData(canvas.getData());
+            }
+            g.setComposite(AlphaComposite.SrcOver);
+            g.drawImage(piece, left, top, null);
+
+            if (cellGraphics != null) {
+                cellGraphics.drawImage(canvas, 0, 0, cellWidth, cellHeight, null);
+            }
+            cell.getRGB(0, 0, cellWidth, cellHeight, pixels, 0, cellWidth);
+            int cellX = (i % columns) * cellWidth;
+            int cellY = (i / columns) * cellHeight;
+            atlas.getPixelWriter().setPixels(cellX, cellY, cellWidth, cellHeight, PixelFormat.getIntArgbInstance(),
+                    pixels, 0, cellWidth);
+            frames[i] = new Rectangle2D(cellX, cellY, cellWidth, cellHeight);
+
+            int delay = control == null ? 0 : intAttribute(control, "delayTime") * 10;
+            elapsed += delay <= 10 ? DEFAULT_FRAME_MILLIS : delay;
+            frameEnds[i] = elapsed;
+
+            // Get the canvas ready for the next frame
+            if ("restoreToBackgroundColor".equals(disposal)) {
+                g.setComposite(AlphaComposite.Clear);
+                g.fillRect(left, top, piece.getWidth(), piece.getHeight());
+            } else if (previous != null) {
+                canvas.setData(previous.getData());
+            }
+        }
+        g.dispose();
+        if (cellGraphics != null) {
+            cellGraphics.dispose();
+        }
+        return new SpriteAtlas(atlas, frames, frameEnds, looping);
+    }
+
+    // The NETSCAPE2.0 application extension is how a GIF says it loops
+    private static boolean hasLoopExtension(IIOMetadataNode meta) {
+        IIOMetadataNode extensions = child(meta, "ApplicationExtensions");
+        if (extensions == null) {
+            return false;
+        }
+        for (Node node = extensions.getFirstChild(); node != null; node = node.getNextSibling()) {
+            IIOMetadataNode extension = (IIOMetadataNode) node;
+            if ("NETSCAPE".equals(extension.getAttribute("applicationID"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return (IIOMetadataNode) node;
+            }
+        }
+        return null;
+    }
+
+    private static int intAttribute(IIOMetadataNode node, String name) {
+        String value = node.getAttribute(name);
+        return value == null || value.isEmpty() ? 0 : Integer.parseInt(value);
+    }
+}